@@ -0,0 +1,162 @@
+package com.dhbw.broker.graphql.bench;
+
+import com.dhbw.broker.graphql.price.AssetPriceRepository;
+import com.dhbw.broker.graphql.price.CandleStore;
+import com.dhbw.broker.graphql.price.LatestPriceCache;
+import com.dhbw.broker.graphql.price.PriceHistoryStore;
+import com.dhbw.broker.graphql.price.PriceQueryController;
+import com.dhbw.broker.graphql.trade.TradeController;
+import com.dhbw.broker.graphql.trade.TradeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end GraphQL execution of the two heaviest read queries: parsing, validation, controller
+ * dispatch and result serialization, with repositories replaced by in-memory data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQlExecutionBenchmark {
+
+    private static final String PRICE_HISTORY = """
+            query { priceHistory24h(assetSymbol: "XAU") { assetSymbol slot priceUsd sourceTsUtc isCarry } }""";
+
+    private static final String PRICE_HISTORY_SPARKLINE = """
+            query { priceHistory24h(assetSymbol: "XAU", maxPoints: 300) { slot priceUsd sourceTsUtc } }""";
+
+    private static final String USER_TRADES = """
+            query { userTrades(first: 50) {
+              edges { cursor node { tradeId assetSymbol side quantity priceUsd executedAt } }
+              pageInfo { hasNextPage endCursor } } }""";
+
+    private AnnotationConfigApplicationContext context;
+    private ExecutionGraphQlService graphQl;
+
+    @Setup
+    public void setUp() {
+        var prices = new AssetPriceRepository(null) {
+            @Override
+            public List<PriceTick> find24hHistoryAllSymbols() {
+                return fullDay("XAU", new BigDecimal("2378.40"));
+            }
+        };
+        var history = new PriceHistoryStore(prices);
+        history.reload();
+
+        var trades = new TradeRepository(null, null) {
+            @Override
+            public TradePage findPage(UUID userId, String assetSymbol, OffsetDateTime from, OffsetDateTime to,
+                                      TradeCursor after, int limit) {
+                return new TradePage(sampleTrades(limit), true);
+            }
+        };
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(PriceQueryController.class,
+                () -> new PriceQueryController(new LatestPriceCache(prices), history, new CandleStore(history)));
+        context.registerBean(TradeController.class,
+                () -> new TradeController(trades, null, null, null, null, null));
+        context.refresh();
+
+        var controllers = new AnnotatedControllerConfigurer();
+        controllers.setApplicationContext(context);
+        controllers.afterPropertiesSet();
+
+        GraphQlSource source = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(new ClassPathResource("schema/schema.graphql"))
+                .configurer(controllers)
+                .build();
+        graphQl = new DefaultExecutionGraphQlService(source);
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bench", null));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse priceHistory24h() {
+        return execute(PRICE_HISTORY);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse priceHistory24hSparkline() {
+        return execute(PRICE_HISTORY_SPARKLINE);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse userTrades() {
+        return execute(USER_TRADES);
+    }
+
+    private ExecutionGraphQlResponse execute(String document) {
+        var request = new DefaultExecutionGraphQlRequest(document, null, null, null, UUID.randomUUID().toString(), null);
+        ExecutionGraphQlResponse response = graphQl.execute(request).block();
+        if (response == null || !response.getErrors().isEmpty()) {
+            throw new IllegalStateException("Benchmark query failed: " + (response == null ? null : response.getErrors()));
+        }
+        response.toMap();
+        return response;
+    }
+
+    private static List<AssetPriceRepository.PriceTick> fullDay(String symbol, BigDecimal base) {
+        var ticks = new ArrayList<AssetPriceRepository.PriceTick>(1440);
+        Instant now = Instant.now();
+        for (int i = 1439; i >= 0; i--) {
+            Instant ts = now.minus(Duration.ofMinutes(i));
+            BigDecimal price = base.add(BigDecimal.valueOf((i % 37) - 18, 2));
+            ticks.add(new AssetPriceRepository.PriceTick(
+                    symbol, AssetPriceRepository.slotOf(ts), price, ts, ts.plusMillis(40), false));
+        }
+        return ticks;
+    }
+
+    private static List<TradeRepository.Trade> sampleTrades(int count) {
+        var trades = new ArrayList<TradeRepository.Trade>(count);
+        OffsetDateTime start = OffsetDateTime.of(2024, 5, 20, 10, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < count; i++) {
+            OffsetDateTime executedAt = start.minusMinutes(i);
+            trades.add(new TradeRepository.Trade(
+                    new UUID(0x7d3f9a4e6f0b4c55L, i), i % 2 == 0 ? "BTC" : "XAU", i % 3 == 0 ? "SELL" : "BUY",
+                    new BigDecimal("0.0150"), new BigDecimal("67123.45000000"), executedAt, executedAt));
+        }
+        return trades;
+    }
+}
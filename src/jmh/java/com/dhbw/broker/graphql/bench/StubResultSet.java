@@ -0,0 +1,32 @@
+package com.dhbw.broker.graphql.bench;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.Map;
+
+/** Single-row {@link ResultSet} backed by a map, covering the getters the row mappers use. */
+public final class StubResultSet {
+
+    private StubResultSet() {
+    }
+
+    public static ResultSet of(Map<String, Object> row) {
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object value = args != null && args.length > 0 ? row.get((String) args[0]) : null;
+                    return switch (method.getName()) {
+                        case "getString", "getObject", "getTimestamp" -> value;
+                        case "getBigDecimal" -> (BigDecimal) value;
+                        case "getInt" -> ((Number) value).intValue();
+                        case "getLong" -> ((Number) value).longValue();
+                        case "getBoolean" -> Boolean.TRUE.equals(value);
+                        case "wasNull" -> false;
+                        case "next" -> false;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
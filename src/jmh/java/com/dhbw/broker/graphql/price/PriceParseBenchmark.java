@@ -0,0 +1,62 @@
+package com.dhbw.broker.graphql.price;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceParseBenchmark {
+
+    private static final Map<String, String> PAYLOADS = Map.of(
+            "flat", """
+                    {"name":"Gold","price":2378.399902,"symbol":"XAU","updatedAt":"2024-05-20T10:15:02Z",\
+                    "updatedAtReadable":"a few seconds ago"}""",
+            "nested", """
+                    {"status":"ok","data":{"symbol":"BTC","price":67123.45,"currency":"USD",\
+                    "source":"aggregate","ts":1716200102}}""",
+            "rates", """
+                    {"base":"USD","timestamp":1716200102,"rates":{"EUR":0.92,"XAG":31.52,"XAU":2378.4,\
+                    "XPD":1012.5,"HG":4.91}}""",
+            "fallback", """
+                    {"meta":{"provider":"x","version":"2"},"result":[{"quote":{"last":{"value":3512.07}}}]}""");
+
+    private static final Map<String, String> SYMBOLS = Map.of(
+            "flat", "XAU", "nested", "BTC", "rates", "XAG", "fallback", "ETH");
+
+    @Param({"flat", "nested", "rates", "fallback"})
+    public String shape;
+
+    private PriceIngestionService service;
+    private String json;
+    private String symbol;
+
+    @Setup
+    public void setUp() {
+        service = new PriceIngestionService(null, null, null, null, null, null, new PricePayloadParser(new ObjectMapper()));
+        json = PAYLOADS.get(shape);
+        symbol = SYMBOLS.get(shape);
+    }
+
+    @Benchmark
+    public BigDecimal parsePrice() {
+        return service.parsePrice(json, symbol);
+    }
+}
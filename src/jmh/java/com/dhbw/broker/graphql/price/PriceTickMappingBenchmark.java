@@ -0,0 +1,49 @@
+package com.dhbw.broker.graphql.price;
+
+import com.dhbw.broker.graphql.bench.StubResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceTickMappingBenchmark {
+
+    private ResultSet row;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.parse("2024-05-20T10:15:02Z");
+        row = StubResultSet.of(Map.of(
+                "asset_symbol", "XAU",
+                "slot", 615,
+                "price_usd", new BigDecimal("2378.39990200"),
+                "source_ts_utc", Timestamp.from(now),
+                "ingested_ts_utc", Timestamp.from(now.plusMillis(40)),
+                "is_carry", false));
+    }
+
+    @Benchmark
+    public AssetPriceRepository.PriceTick mapPriceTick() throws SQLException {
+        return AssetPriceRepository.map(row);
+    }
+}
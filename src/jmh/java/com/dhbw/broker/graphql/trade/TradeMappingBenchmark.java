@@ -0,0 +1,50 @@
+package com.dhbw.broker.graphql.trade;
+
+import com.dhbw.broker.graphql.bench.StubResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TradeMappingBenchmark {
+
+    private ResultSet row;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime executedAt = OffsetDateTime.parse("2024-05-20T10:15:02.123456Z");
+        row = StubResultSet.of(Map.of(
+                "trade_id", UUID.fromString("7d3f9a4e-6f0b-4c55-9f1e-2b1f3c0d9a11"),
+                "asset_symbol", "BTC",
+                "side", "BUY",
+                "quantity", new BigDecimal("0.0150"),
+                "price_usd", new BigDecimal("67123.45000000"),
+                "executed_at", executedAt,
+                "created_at", executedAt.plusNanos(350_000)));
+    }
+
+    @Benchmark
+    public TradeRepository.Trade mapTrade() throws SQLException {
+        return TradeRepository.mapTrade(row);
+    }
+}
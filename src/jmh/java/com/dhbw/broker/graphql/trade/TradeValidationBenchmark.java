@@ -0,0 +1,66 @@
+package com.dhbw.broker.graphql.trade;
+
+import com.dhbw.broker.graphql.price.AssetPriceRepository;
+import com.dhbw.broker.graphql.price.LatestPriceCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Validation of an executeTrade input against warm asset and price caches, without the DB write. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TradeValidationBenchmark {
+
+    private static final List<AssetRepository.Asset> ASSETS = List.of(
+            new AssetRepository.Asset("XAU", "Gold", true, new BigDecimal("0.001"), null),
+            new AssetRepository.Asset("XAG", "Silver", true, new BigDecimal("0.01"), null),
+            new AssetRepository.Asset("BTC", "Bitcoin", true, new BigDecimal("0.0001"), null),
+            new AssetRepository.Asset("ETH", "Ethereum", true, new BigDecimal("0.001"), null));
+
+    private TradeController controller;
+    private Map<String, Object> input;
+
+    @Setup
+    public void setUp() {
+        var assets = new AssetRepository(null) {
+            @Override
+            public List<Asset> findAll() {
+                return ASSETS;
+            }
+        };
+        var registry = new AssetRegistry(assets);
+        registry.refresh();
+
+        var latestPrices = new LatestPriceCache(null);
+        Instant now = Instant.now();
+        latestPrices.put(new AssetPriceRepository.PriceTick("XAU", 0, new BigDecimal("2378.39990200"), now, now, false));
+        latestPrices.put(new AssetPriceRepository.PriceTick("XAG", 0, new BigDecimal("31.52000000"), now, now, false));
+        latestPrices.put(new AssetPriceRepository.PriceTick("BTC", 0, new BigDecimal("67123.45000000"), now, now, false));
+        latestPrices.put(new AssetPriceRepository.PriceTick("ETH", 0, new BigDecimal("3512.07000000"), now, now, false));
+
+        controller = new TradeController(null, registry, latestPrices, null, null, null);
+        input = Map.of("assetSymbol", "BTC", "side", "BUY", "quantity", 0.015);
+    }
+
+    @Benchmark
+    public TradeController.ValidatedTrade validate() {
+        return controller.validate(input);
+    }
+}
@@ -0,0 +1,110 @@
+package com.dhbw.broker.graphql.api;
+
+import com.dhbw.broker.graphql.config.PersistedQueryStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cacheable GET for persisted read-only queries:
+ * {@code GET /graphql/persisted/{sha256Hash}?variables={json}&operationName=...}.
+ * Successful responses carry an ETag and a private max-age that ends at the next minute,
+ * when ingestion may have written new prices; a matching {@code If-None-Match} gets a 304.
+ */
+@RestController
+@RequiredArgsConstructor
+public class PersistedQueryController {
+
+    private static final TypeReference<Map<String, Object>> VARIABLES = new TypeReference<>() {};
+
+    private final WebGraphQlHandler graphQlHandler;
+    private final PersistedQueryStore store;
+    private final ObjectMapper om;
+
+    @Value("${graphql.get.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @GetMapping("/graphql/persisted/{hash}")
+    public Mono<ResponseEntity<byte[]>> execute(
+            @PathVariable String hash,
+            @RequestParam(required = false) String variables,
+            @RequestParam(required = false) String operationName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest servletRequest) throws JsonProcessingException {
+        var persisted = store.find(hash);
+        if (persisted == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        if (!persisted.readOnly()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build());
+        }
+
+        var body = new HashMap<String, Object>();
+        body.put("query", persisted.query());
+        if (operationName != null) body.put("operationName", operationName);
+        if (variables != null) body.put("variables", om.readValue(variables, VARIABLES));
+
+        var http = new ServletServerHttpRequest(servletRequest);
+        var request = new WebGraphQlRequest(http.getURI(), http.getHeaders(), null, null, Map.of(), body,
+                UUID.randomUUID().toString(), servletRequest.getLocale());
+        return graphQlHandler.handleRequest(request).map(response -> toEntity(response, ifNoneMatch));
+    }
+
+    private ResponseEntity<byte[]> toEntity(WebGraphQlResponse response, String ifNoneMatch) {
+        byte[] json;
+        try {
+            json = om.writeValueAsBytes(response.toMap());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize GraphQL response", e);
+        }
+        if (!response.isValid() || !response.getErrors().isEmpty()) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).contentType(MediaType.APPLICATION_JSON).body(json);
+        }
+
+        String etag = "\"" + PersistedQueryStore.sha256Hex(json).substring(0, 32) + "\"";
+        var cache = CacheControl.maxAge(untilNextMinute()).cachePrivate();
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cache).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cache).contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    private Duration untilNextMinute() {
+        long secondsIntoMinute = Instant.now().getEpochSecond() % 60;
+        return Duration.ofSeconds(Math.min(maxAgeSeconds, 60 - secondsIntoMinute));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag) || tag.equals("*")) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dhbw.broker.graphql.config;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers tokens that already passed signature and claim validation, keyed by their SHA-256
+ * digest, so a client reusing its token does not pay for verification on every request. An entry
+ * never outlives the token's {@code exp} nor {@code maxTtl}; rejected tokens are never cached.
+ * Holds at most {@code maxEntries} tokens, evicting the least recently used; expired entries are
+ * dropped when they are looked up.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private record Entry(Jwt jwt, Instant expiresAt) {}
+
+    private final JwtDecoder delegate;
+    private final Duration maxTtl;
+    private final LruCache<ByteBuffer, Entry> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, Duration maxTtl, int maxEntries) {
+        this.delegate = delegate;
+        this.maxTtl = maxTtl;
+        this.verified = new LruCache<>(maxEntries);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        Instant now = Instant.now();
+        Entry entry = verified.get(key);
+        if (entry != null) {
+            if (now.isBefore(entry.expiresAt())) return entry.jwt();
+            verified.remove(key);
+        }
+
+        Jwt jwt = delegate.decode(token);
+        Instant expiresAt = now.plus(maxTtl);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(expiresAt)) {
+            expiresAt = jwt.getExpiresAt();
+        }
+        if (now.isBefore(expiresAt)) {
+            verified.put(key, new Entry(jwt, expiresAt));
+        }
+        return jwt;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.dhbw.broker.graphql.config;
+
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Per-request execution timeout: once the deadline set by {@link RequestDeadlineInterceptor} has
+ * passed, remaining non-trivial fields fail with {@code EXECUTION_TIMEOUT} instead of running
+ * their resolvers, so an expensive request stops issuing DB and upstream calls.
+ */
+@Component
+public class ExecutionDeadlineInstrumentation extends SimplePerformantInstrumentation {
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) return dataFetcher;
+        return env -> {
+            Long deadline = env.getGraphQlContext().get(RequestDeadlineInterceptor.DEADLINE_KEY);
+            if (deadline != null && System.nanoTime() - deadline > 0) {
+                return DataFetcherResult.newResult()
+                        .error(GraphqlErrorBuilder.newError(env)
+                                .message("Request deadline exceeded")
+                                .extensions(Map.of("code", "EXECUTION_TIMEOUT"))
+                                .build())
+                        .build();
+            }
+            return dataFetcher.get(env);
+        };
+    }
+}
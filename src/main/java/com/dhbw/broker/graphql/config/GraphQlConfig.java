@@ -0,0 +1,16 @@
+package com.dhbw.broker.graphql.config;
+
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(QueryCostProperties.class)
+public class GraphQlConfig {
+
+    @Bean
+    GraphQlSourceBuilderCustomizer parsedDocumentCacheCustomizer(ParsedDocumentCache documents) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documents));
+    }
+}
@@ -0,0 +1,31 @@
+package com.dhbw.broker.graphql.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Small synchronized access-ordered map that drops its least recently used entry when full. */
+final class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    LruCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    synchronized void remove(K key) {
+        entries.remove(key);
+    }
+}
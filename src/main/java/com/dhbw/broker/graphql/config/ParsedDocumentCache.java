@@ -0,0 +1,36 @@
+package com.dhbw.broker.graphql.config;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Keeps parsed and validated documents by query text, so repeated operations (persisted queries
+ * in particular) skip parsing and validation. Documents that failed validation are not kept.
+ */
+@Component
+public class ParsedDocumentCache implements PreparsedDocumentProvider {
+
+    private final LruCache<String, PreparsedDocumentEntry> documents;
+
+    public ParsedDocumentCache(@Value("${graphql.documents.cache-size:1000}") int cacheSize) {
+        this.documents = new LruCache<>(cacheSize);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        String query = input.getQuery();
+        PreparsedDocumentEntry entry = documents.get(query);
+        if (entry == null) {
+            entry = parseAndValidate.apply(input);
+            if (!entry.hasErrors()) documents.put(query, entry);
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+}
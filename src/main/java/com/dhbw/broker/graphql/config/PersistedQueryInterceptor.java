@@ -0,0 +1,69 @@
+package com.dhbw.broker.graphql.config;
+
+import graphql.ExecutionResult;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlResponse;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Apollo-style automatic persisted queries. A request carrying
+ * {@code extensions.persistedQuery.sha256Hash} and no query is resolved from the
+ * {@link PersistedQueryStore}; one carrying both registers the query under its hash.
+ */
+@Component
+@RequiredArgsConstructor
+public class PersistedQueryInterceptor implements WebGraphQlInterceptor {
+
+    private final PersistedQueryStore store;
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String hash = hashOf(request.getExtensions());
+        if (hash == null) return chain.next(request);
+
+        String document = request.getDocument();
+        if (isAbsent(document)) {
+            var persisted = store.find(hash);
+            if (persisted == null) {
+                return Mono.just(error(request, "PERSISTED_QUERY_NOT_FOUND", "PersistedQueryNotFound"));
+            }
+            request.configureExecutionInput((input, builder) -> builder.query(persisted.query()).build());
+        } else if (store.register(hash, document) == null) {
+            return Mono.just(error(request, "PERSISTED_QUERY_HASH_MISMATCH", "provided sha does not match query"));
+        }
+        return chain.next(request);
+    }
+
+    /**
+     * A hash-only request has no query text; Spring then reports the APQ marker of
+     * {@link PersistedQuerySupport} as its document.
+     */
+    private static boolean isAbsent(String document) {
+        return document == null || document.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(document);
+    }
+
+    private static String hashOf(Map<String, Object> extensions) {
+        if (extensions != null
+                && extensions.get("persistedQuery") instanceof Map<?, ?> persisted
+                && persisted.get("sha256Hash") instanceof String hash
+                && !hash.isBlank()) {
+            return hash;
+        }
+        return null;
+    }
+
+    private static WebGraphQlResponse error(WebGraphQlRequest request, String code, String message) {
+        var result = ExecutionResult.newExecutionResult()
+                .addError(GraphqlErrorBuilder.newError().message(message).extensions(Map.of("code", code)).build())
+                .build();
+        return new WebGraphQlResponse(new DefaultExecutionGraphQlResponse(request.toExecutionInput(), result));
+    }
+}
@@ -0,0 +1,62 @@
+package com.dhbw.broker.graphql.config;
+
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** Automatic persisted queries: query text by its SHA-256 hash, bounded to the most recently used. */
+@Component
+public class PersistedQueryStore {
+
+    /** A registered query; {@code readOnly} when it contains no mutation or subscription. */
+    public record PersistedQuery(String hash, String query, boolean readOnly) {}
+
+    private final LruCache<String, PersistedQuery> queries;
+
+    public PersistedQueryStore(@Value("${graphql.persisted-queries.cache-size:2000}") int cacheSize) {
+        this.queries = new LruCache<>(cacheSize);
+    }
+
+    public PersistedQuery find(String hash) {
+        return queries.get(hash.toLowerCase());
+    }
+
+    /** Registers {@code query} under {@code hash}; returns null when the hash does not match the query. */
+    public PersistedQuery register(String hash, String query) {
+        String key = hash.toLowerCase();
+        PersistedQuery known = queries.get(key);
+        if (known != null && known.query().equals(query)) return known;
+        if (!sha256Hex(query).equals(key)) return null;
+
+        var persisted = new PersistedQuery(key, query, readOnly(query));
+        queries.put(key, persisted);
+        return persisted;
+    }
+
+    public static String sha256Hex(String value) {
+        return sha256Hex(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String sha256Hex(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean readOnly(String query) {
+        try {
+            return Parser.parse(query).getDefinitionsOfType(OperationDefinition.class).stream()
+                    .allMatch(op -> op.getOperation() == OperationDefinition.Operation.QUERY);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
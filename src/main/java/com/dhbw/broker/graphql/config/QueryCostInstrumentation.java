@@ -0,0 +1,95 @@
+package com.dhbw.broker.graphql.config;
+
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLTypeUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects operations that are too deep or too expensive before any resolver runs. Runs on every
+ * execution rather than during validation, so it also covers documents served from
+ * {@link ParsedDocumentCache} and sees the actual values of variables such as {@code first}.
+ * <p>
+ * The cost of an operation is the sum over its fields of the field cost times the multipliers
+ * of all enclosing fields: {@code first} for paginated fields, the configured or default list
+ * size for lists, 1 otherwise.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private final QueryCostProperties cost;
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext ctx = parameters.getExecutionContext();
+        var totals = new long[2];
+        QueryTraverser.newQueryTraverser()
+                .schema(ctx.getGraphQLSchema())
+                .document(ctx.getDocument())
+                .operationName(ctx.getOperationDefinition().getName())
+                .coercedVariables(ctx.getCoercedVariables())
+                .build()
+                .visitPreOrder(new QueryVisitorStub() {
+                    @Override
+                    public void visitField(QueryVisitorFieldEnvironment env) {
+                        if (env.getField().getName().startsWith("__")) return;
+                        long multiplier = 1;
+                        int depth = 1;
+                        for (var p = env.getParentEnvironment(); p != null; p = p.getParentEnvironment()) {
+                            if (p.getField().getName().startsWith("__")) return;
+                            multiplier = Math.min(multiplier * multiplier(p), Integer.MAX_VALUE);
+                            depth++;
+                        }
+                        totals[0] = Math.max(totals[0], depth);
+                        totals[1] = Math.min(totals[1] + fieldCost(env) * multiplier, Long.MAX_VALUE / 2);
+                    }
+                });
+
+        if (totals[0] > cost.maxDepth()) {
+            throw new AbortExecutionException("Query depth " + totals[0] + " exceeds the limit of " + cost.maxDepth());
+        }
+        if (totals[1] > cost.maxComplexity()) {
+            throw new AbortExecutionException("Query cost " + totals[1] + " exceeds the limit of " + cost.maxComplexity());
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    private long fieldCost(QueryVisitorFieldEnvironment env) {
+        Integer configured = cost.fields().get(key(env));
+        if (configured != null) return configured;
+        var type = GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType());
+        return GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(type)) ? 0 : 1;
+    }
+
+    private long multiplier(QueryVisitorFieldEnvironment env) {
+        GraphQLFieldDefinition definition = env.getFieldDefinition();
+        if (definition.getArgument("first") != null) {
+            return env.getArguments().get("first") instanceof Number n
+                    ? Math.max(0, n.longValue()) : cost.defaultPageSize();
+        }
+        if (GraphQLTypeUtil.unwrapNonNull(definition.getType()) instanceof GraphQLList) {
+            return cost.listSizes().getOrDefault(key(env), cost.defaultListSize());
+        }
+        return 1;
+    }
+
+    private static String key(QueryVisitorFieldEnvironment env) {
+        var parent = (GraphQLNamedType) GraphQLTypeUtil.unwrapAll(env.getParentType());
+        return parent.getName() + "." + env.getFieldDefinition().getName();
+    }
+}
@@ -0,0 +1,32 @@
+package com.dhbw.broker.graphql.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Static cost model for GraphQL operations, keyed by {@code Type.field}.
+ *
+ * @param maxDepth        deepest field nesting allowed, introspection excluded
+ * @param maxComplexity   largest total cost allowed
+ * @param defaultListSize assumed size of a list field without an entry in {@code listSizes}
+ * @param defaultPageSize assumed {@code first} when a paginated field is called without it
+ * @param fields          cost of a single resolution of the field; object and list fields default to 1, scalars to 0
+ * @param listSizes       assumed size of a list field, multiplying the cost of everything below it
+ */
+@ConfigurationProperties("graphql.cost")
+public record QueryCostProperties(
+        @DefaultValue("12") int maxDepth,
+        @DefaultValue("1000") int maxComplexity,
+        @DefaultValue("10") int defaultListSize,
+        @DefaultValue("50") int defaultPageSize,
+        Map<String, Integer> fields,
+        Map<String, Integer> listSizes
+) {
+
+    public QueryCostProperties {
+        fields = fields == null ? Map.of() : Map.copyOf(fields);
+        listSizes = listSizes == null ? Map.of() : Map.copyOf(listSizes);
+    }
+}
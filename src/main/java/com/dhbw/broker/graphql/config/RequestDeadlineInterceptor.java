@@ -0,0 +1,52 @@
+package com.dhbw.broker.graphql.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Stamps every GraphQL request with an absolute deadline in the GraphQL context under
+ * {@link #DEADLINE_KEY}. The budget comes from the caller's {@code X-Request-Timeout-Ms}
+ * header when present (capped by the configured budget), else from {@code graphql.request.budget-ms}.
+ */
+@Component
+public class RequestDeadlineInterceptor implements WebGraphQlInterceptor {
+
+    public static final String DEADLINE_KEY = "requestDeadlineNanos";
+    static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final long budgetMs;
+
+    public RequestDeadlineInterceptor(@Value("${graphql.request.budget-ms:5000}") long budgetMs) {
+        this.budgetMs = budgetMs;
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        long budget = budgetMs;
+        String header = request.getHeaders().getFirst(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                budget = Math.min(budget, Math.max(0, Long.parseLong(header.trim())));
+            } catch (NumberFormatException ignored) {
+                // malformed header: keep the configured budget
+            }
+        }
+        long deadline = System.nanoTime() + budget * 1_000_000L;
+        request.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(Map.of(DEADLINE_KEY, deadline)).build());
+        return chain.next(request);
+    }
+
+    /** Time left until {@code deadlineNanos}, or {@code fallback} when no deadline was set. */
+    public static Duration remaining(Long deadlineNanos, Duration fallback) {
+        if (deadlineNanos == null) return fallback;
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+}
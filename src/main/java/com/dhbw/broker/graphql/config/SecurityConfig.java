@@ -1,5 +1,16 @@
 package com.dhbw.broker.graphql.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,11 +30,16 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
     SecurityFilterChain security(HttpSecurity http, JwtDecoder dec) throws Exception {
         var scopes = new JwtGrantedAuthoritiesConverter();
@@ -40,8 +56,12 @@ public class SecurityConfig {
                 .requestCache(RequestCacheConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.GET, "/actuator/health", "/health").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**")
+                        .hasAuthority("SCOPE_metrics:read")
                         .requestMatchers(HttpMethod.POST, "/graphql", "/graphql/**")
                         .hasAuthority("SCOPE_graphql:proxy")
+                        .requestMatchers(HttpMethod.GET, "/graphql", "/graphql/persisted/*")
+                        .hasAuthority("SCOPE_graphql:proxy")
                         .anyRequest().denyAll()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
@@ -55,14 +75,47 @@ public class SecurityConfig {
     JwtDecoder jwtDecoder(
             @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkUri,
             @Value("${security.jwt.issuer}") String issuer,
-            @Value("${security.jwt.audience}") String audience
-    ) {
-        var dec = NimbusJwtDecoder.withJwkSetUri(jwkUri).build();
+            @Value("${security.jwt.audience}") String audience,
+            @Value("${security.jwt.jwks.ttl-ms:300000}") long jwksTtlMs,
+            @Value("${security.jwt.jwks.refresh-ahead-ms:60000}") long jwksRefreshAheadMs,
+            @Value("${security.jwt.jwks.timeout-ms:2000}") int jwksTimeoutMs,
+            @Value("${security.jwt.cache.ttl-ms:300000}") long cacheTtlMs,
+            @Value("${security.jwt.cache.max-entries:10000}") int cacheMaxEntries
+    ) throws MalformedURLException {
+        JWKSource<SecurityContext> keys = JWKSourceBuilder
+                .<SecurityContext>create(URI.create(jwkUri).toURL(),
+                        new DefaultResourceRetriever(jwksTimeoutMs, jwksTimeoutMs, JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT))
+                .cache(jwksTtlMs, jwksTimeoutMs)
+                .refreshAheadCache(jwksRefreshAheadMs, true)
+                .outageTolerantForever()
+                .build();
+        prefetch(keys, jwkUri);
+
+        var processor = new DefaultJWTProcessor<SecurityContext>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keys));
+        // claims are checked by the Spring validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        var dec = new NimbusJwtDecoder(processor);
         OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(issuer);
         OAuth2TokenValidator<Jwt> audOk = new JwtClaimValidator<List<String>>(
                 "aud", aud -> aud != null && aud.contains(audience)
         );
         dec.setJwtValidator(new DelegatingOAuth2TokenValidator<>(withIssuer, audOk));
-        return dec;
+        return new CachingJwtDecoder(dec, Duration.ofMillis(cacheTtlMs), cacheMaxEntries);
+    }
+
+    /**
+     * Loads the key set at startup so the first requests do not wait for it; afterwards the
+     * source refreshes it in the background before it expires.
+     */
+    private static void prefetch(JWKSource<SecurityContext> keys, String jwkUri) {
+        try {
+            var loaded = keys.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            log.info("Prefetched {} signing keys from {}", loaded.size(), jwkUri);
+        } catch (Exception e) {
+            log.warn("JWKS prefetch from {} failed, keys will be loaded on first use: {}", jwkUri, e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.dhbw.broker.graphql.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.dhbw.broker.SlowOperation")
+@Label("Slow Operation")
+@Category("Broker")
+@Description("Resolver, repository or upstream call that took longer than observability.slow-op-threshold-ms")
+@StackTrace(false)
+class SlowOperationEvent extends Event {
+
+    @Label("Observation")
+    String name;
+
+    @Label("Operation")
+    String contextualName;
+
+    @Label("Tags")
+    String tags;
+
+    @Label("Error")
+    String error;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,57 @@
+package com.dhbw.broker.graphql.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jdk.jfr.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.StringJoiner;
+
+/**
+ * Emits a {@link SlowOperationEvent} for every observation (GraphQL fields, repositories, HTTP
+ * clients) slower than the threshold. Costs nothing unless a JFR recording has the event enabled.
+ */
+@Component
+public class SlowOperationObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(SlowOperationEvent.class);
+    private static final String START_KEY = SlowOperationObservationHandler.class.getName() + ".start";
+
+    private final long thresholdNanos;
+
+    public SlowOperationObservationHandler(@Value("${observability.slow-op-threshold-ms:250}") long thresholdMs) {
+        this.thresholdNanos = thresholdMs * 1_000_000;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        if (EVENT_TYPE.isEnabled()) context.put(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Long start = context.get(START_KEY);
+        if (start == null) return;
+        long elapsed = System.nanoTime() - start;
+        if (elapsed < thresholdNanos) return;
+
+        var tags = new StringJoiner(",");
+        for (KeyValue kv : context.getLowCardinalityKeyValues()) {
+            tags.add(kv.getKey() + "=" + kv.getValue());
+        }
+        var event = new SlowOperationEvent();
+        event.name = context.getName();
+        event.contextualName = context.getContextualName();
+        event.tags = tags.toString();
+        event.error = context.getError() == null ? null : context.getError().toString();
+        event.elapsed = elapsed;
+        event.commit();
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+}
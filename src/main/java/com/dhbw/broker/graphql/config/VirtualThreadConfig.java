@@ -0,0 +1,74 @@
+package com.dhbw.broker.graphql.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Guardrails for {@code spring.threads.virtual.enabled=true}. In that mode Spring Boot already
+ * runs Tomcat requests, annotated GraphQL controllers and {@code @Scheduled} jobs on virtual
+ * threads; this adds a JDBC concurrency limit so they cannot stampede the connection pool and
+ * reports virtual threads that get pinned to their carrier.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Value("${jdbc.virtual.pinned-threshold-ms:20}")
+    private long pinnedThresholdMs;
+
+    private RecordingStream pinnedEvents;
+
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyLimiter(Environment env) {
+        int maxConcurrency = env.getProperty("jdbc.virtual.max-concurrency", Integer.class,
+                env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long acquireTimeoutMs = env.getProperty("jdbc.virtual.acquire-timeout-ms", Long.class, 2000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    log.info("Limiting JDBC concurrency of '{}' to {}", beanName, maxConcurrency);
+                    return new ConcurrencyLimitedDataSource(ds, maxConcurrency, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @PostConstruct
+    void watchPinning() {
+        pinnedEvents = new RecordingStream();
+        pinnedEvents.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(pinnedThresholdMs)).withStackTrace();
+        pinnedEvents.onEvent(PINNED_EVENT, e -> {
+            var frames = e.getStackTrace() == null ? List.<RecordedFrame>of() : e.getStackTrace().getFrames();
+            var top = frames.stream().limit(8)
+                    .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                    .toList();
+            log.warn("Virtual thread pinned for {} ms at {}", e.getDuration().toMillis(), top);
+        });
+        pinnedEvents.startAsync();
+    }
+
+    @PreDestroy
+    void stopWatchingPinning() {
+        if (pinnedEvents != null) pinnedEvents.close();
+    }
+}
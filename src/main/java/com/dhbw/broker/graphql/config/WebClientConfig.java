@@ -1,9 +1,14 @@
 package com.dhbw.broker.graphql.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
@@ -11,10 +16,20 @@ public class WebClientConfig {
     @Value("${upstream.graphql.url:http://localhost:8080}")
     private String upstreamUrl;
 
+    @Value("${upstream.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${upstream.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
+    public WebClient webClient(WebClient.Builder builder) {
+        var http = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        return builder.clone()
                 .baseUrl(upstreamUrl)
+                .clientConnector(new ReactorClientHttpConnector(http))
                 .build();
     }
 }
\ No newline at end of file
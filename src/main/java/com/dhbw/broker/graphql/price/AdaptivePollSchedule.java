@@ -0,0 +1,96 @@
+package com.dhbw.broker.graphql.price;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-symbol polling cadence. A symbol starts at its configured interval; each poll that sees
+ * a new price halves the interval down to {@code price.poll.min-interval-seconds}, each poll that
+ * sees the same price doubles it up to {@code price.poll.max-interval-seconds}, and failures back
+ * off exponentially from the configured interval until the next success.
+ */
+@Component
+public class AdaptivePollSchedule {
+
+  private static final class State {
+    long baseMillis;
+    long intervalMillis;
+    long nextDueMillis;
+    BigDecimal lastPrice;
+    int failures;
+
+    State(long baseMillis, long nowMillis) {
+      this.baseMillis = baseMillis;
+      this.intervalMillis = baseMillis;
+      this.nextDueMillis = nowMillis;
+    }
+  }
+
+  private final long defaultMillis;
+  private final long minMillis;
+  private final long maxMillis;
+  private final Map<String, State> states = new HashMap<>();
+
+  public AdaptivePollSchedule(
+      @Value("${price.poll.default-interval-seconds:60}") long defaultSeconds,
+      @Value("${price.poll.min-interval-seconds:20}") long minSeconds,
+      @Value("${price.poll.max-interval-seconds:600}") long maxSeconds) {
+    this.minMillis = minSeconds * 1000;
+    this.maxMillis = Math.max(minMillis, maxSeconds * 1000);
+    this.defaultMillis = clamp(defaultSeconds * 1000);
+  }
+
+  /**
+   * Symbols due at {@code nowMillis} among {@code active}, which maps each polled symbol to its
+   * configured interval in seconds (null for the default). Symbols no longer active are forgotten.
+   */
+  public synchronized List<String> due(Map<String, Integer> active, long nowMillis) {
+    states.keySet().retainAll(active.keySet());
+    var due = new ArrayList<String>();
+    active.forEach((symbol, seconds) -> {
+      long base = seconds == null ? defaultMillis : clamp(seconds * 1000L);
+      State s = states.computeIfAbsent(symbol, k -> new State(base, nowMillis));
+      if (s.baseMillis != base) {
+        s.baseMillis = base;
+        s.intervalMillis = base;
+        s.nextDueMillis = Math.min(s.nextDueMillis, nowMillis + base);
+      }
+      if (s.nextDueMillis <= nowMillis) due.add(symbol);
+    });
+    return due;
+  }
+
+  public synchronized void succeeded(String symbol, BigDecimal price, long nowMillis) {
+    State s = states.get(symbol);
+    if (s == null) return;
+    if (s.failures > 0) {
+      s.failures = 0;
+      s.intervalMillis = s.baseMillis;
+    }
+    if (s.lastPrice != null) {
+      s.intervalMillis = s.lastPrice.compareTo(price) != 0
+        ? Math.max(minMillis, s.intervalMillis / 2)
+        : Math.min(maxMillis, s.intervalMillis * 2);
+    }
+    s.lastPrice = price;
+    s.nextDueMillis = nowMillis + s.intervalMillis;
+  }
+
+  public synchronized void failed(String symbol, long nowMillis) {
+    State s = states.get(symbol);
+    if (s == null) return;
+    s.failures++;
+    s.intervalMillis = Math.min(maxMillis, s.baseMillis << Math.min(s.failures, 16));
+    s.nextDueMillis = nowMillis + s.intervalMillis;
+  }
+
+  private long clamp(long millis) {
+    return Math.max(minMillis, Math.min(maxMillis, millis));
+  }
+}
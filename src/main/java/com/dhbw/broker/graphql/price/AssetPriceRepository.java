@@ -1,26 +1,38 @@
 package com.dhbw.broker.graphql.price;
 
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
+@Observed(name = "broker.jdbc")
 @RequiredArgsConstructor
 public class AssetPriceRepository {
 
   private final JdbcTemplate jdbc;
 
+  static final int SLOTS = 1440;
+
   public record PriceTick(
       String assetSymbol, int slot, BigDecimal priceUsd,
       Instant sourceTsUtc, Instant ingestedTsUtc, boolean isCarry) {}
 
-  private static PriceTick map(ResultSet rs) throws SQLException {
+  static PriceTick map(ResultSet rs) throws SQLException {
     return new PriceTick(
         rs.getString("asset_symbol"),
         rs.getInt("slot"),
@@ -31,34 +43,78 @@ public class AssetPriceRepository {
     );
   }
 
-  
-  public int insertTick(String assetSymbol, BigDecimal priceUsd, Instant sourceTsUtc, boolean isCarry) {
-    return jdbc.update("""
-      INSERT INTO broker.asset_prices_ring (asset_symbol, slot, price_usd, source_ts_utc, ingested_ts_utc, is_carry)
-      VALUES (
-        ?, 
-        (EXTRACT(EPOCH FROM ?::timestamp)::int / 60) % 1440,
-        ?, 
-        ?, 
-        (now() AT TIME ZONE 'UTC'), 
-        ?
-      )
-      """,
-      ps -> {
-        ps.setString(1, assetSymbol);
-        ps.setTimestamp(2, java.sql.Timestamp.from(sourceTsUtc));        
-        ps.setBigDecimal(3, priceUsd);
-        ps.setTimestamp(4, java.sql.Timestamp.from(sourceTsUtc));          
-        ps.setBoolean(5, isCarry);
-      });
+  public static int slotOf(Instant sourceTsUtc) {
+    return (int) Math.floorMod(sourceTsUtc.getEpochSecond() / 60, SLOTS);
+  }
+
+  /**
+   * Moves existing tables onto ring semantics: keeps only the newest row per
+   * {@code (asset_symbol, slot)} and adds the unique key the upsert relies on. Runs once,
+   * in a single statement, only while the key is still missing.
+   */
+  @PostConstruct
+  void ensureRingKey() {
+    jdbc.execute("""
+      DO $$
+      BEGIN
+        IF to_regclass('broker.asset_prices_ring_symbol_slot_uq') IS NULL THEN
+          DELETE FROM broker.asset_prices_ring a
+          USING broker.asset_prices_ring b
+          WHERE a.asset_symbol = b.asset_symbol
+            AND a.slot = b.slot
+            AND (a.source_ts_utc, a.ctid) < (b.source_ts_utc, b.ctid);
+          CREATE UNIQUE INDEX asset_prices_ring_symbol_slot_uq
+            ON broker.asset_prices_ring (asset_symbol, slot);
+        END IF;
+      END
+      $$
+      """);
   }
 
 
-  public int purgeOlderThan24h() {
-    return jdbc.update("""
-      DELETE FROM broker.asset_prices_ring
-      WHERE source_ts_utc < (now() AT TIME ZONE 'UTC') - interval '24 hours'
-    """);
+  /**
+   * Writes all ticks of one collection cycle as a single JDBC batch, overwriting the
+   * {@code (asset_symbol, slot)} row in place so the table never holds more than one day.
+   * A slot is never rewound to an older tick. The returned array holds one update count per
+   * tick, in input order. In autocommit the driver runs the batch as one implicit transaction,
+   * so a failing row rolls back the rows before it as well: on a {@link BatchUpdateException}
+   * every entry is {@link Statement#EXECUTE_FAILED}, whatever counts the driver reported.
+   */
+  public int[] upsertTicks(List<PriceTick> ticks) {
+    if (ticks.isEmpty()) return new int[0];
+    try {
+      return jdbc.batchUpdate("""
+        INSERT INTO broker.asset_prices_ring (asset_symbol, slot, price_usd, source_ts_utc, ingested_ts_utc, is_carry)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON CONFLICT (asset_symbol, slot) DO UPDATE
+        SET price_usd = EXCLUDED.price_usd,
+            source_ts_utc = EXCLUDED.source_ts_utc,
+            ingested_ts_utc = EXCLUDED.ingested_ts_utc,
+            is_carry = EXCLUDED.is_carry
+        WHERE asset_prices_ring.source_ts_utc <= EXCLUDED.source_ts_utc
+        """, new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            PriceTick t = ticks.get(i);
+            ps.setString(1, t.assetSymbol());
+            ps.setInt(2, t.slot());
+            ps.setBigDecimal(3, t.priceUsd());
+            ps.setTimestamp(4, java.sql.Timestamp.from(t.sourceTsUtc()));
+            ps.setTimestamp(5, java.sql.Timestamp.from(t.ingestedTsUtc()));
+            ps.setBoolean(6, t.isCarry());
+          }
+
+          @Override
+          public int getBatchSize() {
+            return ticks.size();
+          }
+        });
+    } catch (DataAccessException e) {
+      if (!(e.getCause() instanceof BatchUpdateException)) throw e;
+      int[] counts = new int[ticks.size()];
+      Arrays.fill(counts, Statement.EXECUTE_FAILED);
+      return counts;
+    }
   }
 
  
@@ -74,6 +130,26 @@ public class AssetPriceRepository {
   }
 
  
+  public List<PriceTick> findLatestForSymbols(Collection<String> assetSymbols) {
+    return jdbc.query("""
+      SELECT DISTINCT ON (asset_symbol) asset_symbol, slot, price_usd, source_ts_utc, ingested_ts_utc, is_carry
+      FROM broker.asset_prices_ring
+      WHERE asset_symbol = ANY(?)
+      ORDER BY asset_symbol, source_ts_utc DESC
+    """, ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", assetSymbols.toArray())),
+      (rs, i) -> map(rs));
+  }
+
+ 
+  public List<PriceTick> findLatestPerSymbol() {
+    return jdbc.query("""
+      SELECT DISTINCT ON (asset_symbol) asset_symbol, slot, price_usd, source_ts_utc, ingested_ts_utc, is_carry
+      FROM broker.asset_prices_ring
+      ORDER BY asset_symbol, source_ts_utc DESC
+    """, (rs, i) -> map(rs));
+  }
+
+ 
   public List<PriceTick> find24hHistory(String assetSymbol) {
     return jdbc.query("""
       SELECT asset_symbol, slot, price_usd, source_ts_utc, ingested_ts_utc, is_carry
@@ -90,4 +166,14 @@ public class AssetPriceRepository {
         return results;
       });
   }
+
+ 
+  public List<PriceTick> find24hHistoryAllSymbols() {
+    return jdbc.query("""
+      SELECT asset_symbol, slot, price_usd, source_ts_utc, ingested_ts_utc, is_carry
+      FROM broker.asset_prices_ring
+      WHERE source_ts_utc >= (now() AT TIME ZONE 'UTC') - interval '24 hours'
+      ORDER BY source_ts_utc ASC
+    """, (rs, i) -> map(rs));
+  }
 }
\ No newline at end of file
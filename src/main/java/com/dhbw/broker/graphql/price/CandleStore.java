@@ -0,0 +1,213 @@
+package com.dhbw.broker.graphql.price;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * OHLC candles for the last 24 hours, maintained tick by tick as prices are ingested.
+ * Each symbol keeps one bucket ring per {@link CandleInterval}; reading a series never
+ * touches the database or re-scans ticks.
+ */
+@Component
+@RequiredArgsConstructor
+public class CandleStore {
+
+  private static final Logger log = LoggerFactory.getLogger(CandleStore.class);
+
+  private static final long MINUTE_MILLIS = 60_000L;
+  private static final long DAY_MILLIS = 24 * 60 * MINUTE_MILLIS;
+  private static final long EMPTY = Long.MIN_VALUE;
+
+  public enum CandleInterval {
+    M1(1), M5(5), M15(15), H1(60);
+
+    final long millis;
+
+    CandleInterval(int minutes) {
+      this.millis = minutes * MINUTE_MILLIS;
+    }
+  }
+
+  public record Candle(
+      String assetSymbol, Instant startTsUtc,
+      BigDecimal openUsd, BigDecimal highUsd, BigDecimal lowUsd, BigDecimal closeUsd, int tickCount) {}
+
+  private final PriceHistoryStore history;
+
+  private final ConcurrentHashMap<String, SymbolCandles> symbols = new ConcurrentHashMap<>();
+
+  /**
+   * Replaces each symbol's buckets with a replay of its price history. Ticks recorded live
+   * before the replay are already in that history, so the buckets are cleared first and
+   * {@link #record} then skips anything the replay already covered.
+   */
+  @Order(1)
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    int n = 0;
+    for (String symbol : history.symbols()) {
+      n += symbols.computeIfAbsent(symbol, s -> new SymbolCandles()).replay(() -> history.history(symbol));
+    }
+    log.info("Rebuilt candles from {} ticks", n);
+  }
+
+  public void record(AssetPriceRepository.PriceTick tick) {
+    symbols.computeIfAbsent(tick.assetSymbol(), s -> new SymbolCandles())
+      .recordLive(tick.sourceTsUtc().toEpochMilli(), PriceHistoryStore.toFixed(tick.priceUsd()));
+  }
+
+  public List<Candle> candles(String assetSymbol, CandleInterval interval) {
+    var candles = symbols.get(assetSymbol);
+    return candles == null ? List.of() : candles.read(assetSymbol, interval, System.currentTimeMillis());
+  }
+
+  private static final class SymbolCandles {
+
+    private final Map<CandleInterval, Buckets> byInterval = new EnumMap<>(CandleInterval.class);
+    private final StampedLock lock = new StampedLock();
+    /** Newest tick seen; a live tick at or before it was already counted by a replay. */
+    private long highWater = EMPTY;
+
+    SymbolCandles() {
+      for (var interval : CandleInterval.values()) {
+        byInterval.put(interval, new Buckets(interval));
+      }
+    }
+
+    void recordLive(long ts, long price) {
+      long stamp = lock.writeLock();
+      try {
+        if (ts <= highWater) return;
+        highWater = ts;
+        for (var buckets : byInterval.values()) buckets.record(ts, price);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Clears every bucket and records the non-carry ticks of {@code ticks}. The snapshot is
+     * read under the write lock, so a tick is either in it or recorded live afterwards.
+     */
+    int replay(Supplier<List<AssetPriceRepository.PriceTick>> ticks) {
+      long stamp = lock.writeLock();
+      try {
+        for (var buckets : byInterval.values()) buckets.clear();
+        highWater = EMPTY;
+        int n = 0;
+        for (var tick : ticks.get()) {
+          if (tick.isCarry()) continue;
+          long ts = tick.sourceTsUtc().toEpochMilli();
+          long price = PriceHistoryStore.toFixed(tick.priceUsd());
+          for (var buckets : byInterval.values()) buckets.record(ts, price);
+          highWater = Math.max(highWater, ts);
+          n++;
+        }
+        return n;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    List<Candle> read(String assetSymbol, CandleInterval interval, long nowMillis) {
+      long stamp = lock.readLock();
+      try {
+        return byInterval.get(interval).read(assetSymbol, nowMillis);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+  }
+
+  private static final class Buckets {
+
+    private final long width;
+    private final int size;
+    private final long[] start;
+    private final long[] firstTs;
+    private final long[] lastTs;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final int[] count;
+
+    Buckets(CandleInterval interval) {
+      width = interval.millis;
+      size = (int) (DAY_MILLIS / width);
+      start = new long[size];
+      firstTs = new long[size];
+      lastTs = new long[size];
+      open = new long[size];
+      high = new long[size];
+      low = new long[size];
+      close = new long[size];
+      count = new int[size];
+      Arrays.fill(start, EMPTY);
+    }
+
+    void clear() {
+      Arrays.fill(start, EMPTY);
+    }
+
+    private int indexOf(long bucketStart) {
+      return (int) Math.floorMod(bucketStart / width, size);
+    }
+
+    void record(long ts, long price) {
+      long bucketStart = ts - Math.floorMod(ts, width);
+      int i = indexOf(bucketStart);
+      if (bucketStart < start[i]) return;
+      if (bucketStart > start[i]) {
+        start[i] = bucketStart;
+        firstTs[i] = lastTs[i] = ts;
+        open[i] = high[i] = low[i] = close[i] = price;
+        count[i] = 1;
+        return;
+      }
+      if (price > high[i]) high[i] = price;
+      if (price < low[i]) low[i] = price;
+      if (ts < firstTs[i]) {
+        firstTs[i] = ts;
+        open[i] = price;
+      }
+      if (ts >= lastTs[i]) {
+        lastTs[i] = ts;
+        close[i] = price;
+      }
+      count[i]++;
+    }
+
+    /** Oldest first, ending with the bucket that contains {@code nowMillis}. */
+    List<Candle> read(String assetSymbol, long nowMillis) {
+      long currentStart = nowMillis - Math.floorMod(nowMillis, width);
+      long oldestStart = currentStart - (size - 1) * width;
+      int current = indexOf(currentStart);
+      var out = new ArrayList<Candle>(size);
+      for (int k = 1; k <= size; k++) {
+        int i = (current + k) % size;
+        if (start[i] < oldestStart || start[i] > currentStart) continue;
+        out.add(new Candle(assetSymbol, Instant.ofEpochMilli(start[i]),
+          PriceHistoryStore.fromFixed(open[i]), PriceHistoryStore.fromFixed(high[i]),
+          PriceHistoryStore.fromFixed(low[i]), PriceHistoryStore.fromFixed(close[i]), count[i]));
+      }
+      return out;
+    }
+  }
+}
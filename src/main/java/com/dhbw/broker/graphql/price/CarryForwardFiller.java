@@ -0,0 +1,75 @@
+package com.dhbw.broker.graphql.price;
+
+import com.dhbw.broker.graphql.trade.AssetRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+
+/**
+ * Keeps the price ring dense: every minute an active symbol has no tick for, because its poll
+ * was skipped by backoff or failed, gets a carry tick repeating the previous price. Runs once at
+ * startup to backfill downtime, then shortly after every minute boundary. Carries reach the
+ * in-memory ring only once persisted, so a failed write is retried on the next run.
+ */
+@Component
+@RequiredArgsConstructor
+public class CarryForwardFiller {
+
+  private static final Logger log = LoggerFactory.getLogger(CarryForwardFiller.class);
+
+  private final PriceHistoryStore history;
+  private final AssetPriceRepository repo;
+  private final AssetRegistry assets;
+  private final MeterRegistry meters;
+
+  @Order(2)
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    try {
+      int n = fill();
+      log.info("Backfilled {} carry ticks", n);
+    } catch (Exception e) {
+      log.warn("Carry backfill failed: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(cron = "${price.carry.cron:15 * * * * *}")
+  public void fillMissedMinutes() {
+    try {
+      fill();
+    } catch (Exception e) {
+      log.error("Carry fill failed: {}", e.getMessage());
+    }
+  }
+
+  private int fill() {
+    var symbols = new ArrayList<String>();
+    for (var asset : assets.all()) {
+      if (asset.isActive()) symbols.add(asset.assetSymbol());
+    }
+    var carries = history.fillGaps(symbols, System.currentTimeMillis());
+    if (carries.isEmpty()) return 0;
+
+    int[] counts = repo.upsertTicks(carries);
+    int failed = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] == Statement.EXECUTE_FAILED) {
+        failed++;
+      } else {
+        history.record(carries.get(i));
+      }
+    }
+    if (failed > 0) log.warn("Persisting {} of {} carry ticks failed", failed, carries.size());
+    meters.counter("price.carry.ticks").increment(carries.size() - failed);
+    return carries.size() - failed;
+  }
+}
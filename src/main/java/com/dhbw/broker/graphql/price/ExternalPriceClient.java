@@ -1,24 +1,48 @@
 package com.dhbw.broker.graphql.price;
 
-import lombok.RequiredArgsConstructor;
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Component
-@RequiredArgsConstructor
 public class ExternalPriceClient {
 
-  private final WebClient.Builder builder;
+  private final WebClient client;
+  private final Duration timeout;
+
+  public ExternalPriceClient(
+      WebClient.Builder builder,
+      @Value("${price.api.base-url:https://api.gold-api.com}") String baseUrl,
+      @Value("${price.api.timeout-ms:5000}") long timeoutMs,
+      @Value("${price.api.max-connections:16}") int maxConnections) {
+    this.timeout = Duration.ofMillis(timeoutMs);
 
-  @Value("${price.api.base-url:https://api.gold-api.com}")
-  private String baseUrl;
+    var pool = ConnectionProvider.builder("price-api")
+      .maxConnections(maxConnections)
+      .pendingAcquireTimeout(timeout)
+      .maxIdleTime(Duration.ofSeconds(30))
+      .build();
+    var http = HttpClient.create(pool)
+      .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutMs)
+      .responseTimeout(timeout);
+
+    this.client = builder.clone()
+      .baseUrl(baseUrl)
+      .clientConnector(new ReactorClientHttpConnector(http))
+      .build();
+  }
 
-  public String fetchPrice(String symbol) {
-    return builder.baseUrl(baseUrl).build()
-      .get().uri("/price/{symbol}", symbol)
+  public Mono<String> fetchPrice(String symbol) {
+    return client.get().uri("/price/{symbol}", symbol)
       .retrieve()
       .bodyToMono(String.class)
-      .block();
+      .timeout(timeout);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.dhbw.broker.graphql.price;
+
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Registers the {@code String -> PriceTick} DataLoader used by valuation fields. All symbols
+ * requested while resolving one level of a response are looked up together.
+ */
+@Component
+public class LatestPriceBatchLoader {
+
+  public LatestPriceBatchLoader(BatchLoaderRegistry registry, LatestPriceCache latestPrices) {
+    registry.forTypePair(String.class, AssetPriceRepository.PriceTick.class)
+      .registerMappedBatchLoader((symbols, env) -> Mono.fromCallable(() -> latestPrices.getAll(symbols)));
+  }
+}
@@ -0,0 +1,71 @@
+package com.dhbw.broker.graphql.price;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest tick per symbol, written by ingestion and read by price queries and trades.
+ * The database is only consulted on a cold miss.
+ */
+@Component
+@RequiredArgsConstructor
+public class LatestPriceCache {
+
+  private static final Logger log = LoggerFactory.getLogger(LatestPriceCache.class);
+
+  private final AssetPriceRepository repo;
+
+  private final ConcurrentHashMap<String, AssetPriceRepository.PriceTick> latest = new ConcurrentHashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    try {
+      var ticks = repo.findLatestPerSymbol();
+      ticks.forEach(this::put);
+      log.info("Warmed latest price cache with {} symbols", ticks.size());
+    } catch (Exception e) {
+      log.warn("Latest price cache warm-up failed, falling back to lazy loads: {}", e.getMessage());
+    }
+  }
+
+  public AssetPriceRepository.PriceTick get(String assetSymbol) {
+    var tick = latest.get(assetSymbol);
+    if (tick != null) return tick;
+
+    tick = repo.findLatest(assetSymbol);
+    return tick == null ? null : put(tick);
+  }
+
+  /** Resolves many symbols at once; all cold misses are loaded with a single query. */
+  public Map<String, AssetPriceRepository.PriceTick> getAll(Collection<String> assetSymbols) {
+    var result = new HashMap<String, AssetPriceRepository.PriceTick>(assetSymbols.size());
+    var missing = new ArrayList<String>();
+    for (String symbol : assetSymbols) {
+      var tick = latest.get(symbol);
+      if (tick != null) result.put(symbol, tick);
+      else missing.add(symbol);
+    }
+    if (!missing.isEmpty()) {
+      for (var tick : repo.findLatestForSymbols(missing)) {
+        result.put(tick.assetSymbol(), put(tick));
+      }
+    }
+    return result;
+  }
+
+  /** Stores the tick unless a newer one is already cached; returns whichever wins. */
+  public AssetPriceRepository.PriceTick put(AssetPriceRepository.PriceTick tick) {
+    return latest.merge(tick.assetSymbol(), tick,
+      (cur, next) -> next.sourceTsUtc().isBefore(cur.sourceTsUtc()) ? cur : next);
+  }
+}
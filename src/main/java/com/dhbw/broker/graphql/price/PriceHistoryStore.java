@@ -0,0 +1,257 @@
+package com.dhbw.broker.graphql.price;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntToDoubleFunction;
+
+import static com.dhbw.broker.graphql.price.AssetPriceRepository.SLOTS;
+
+/**
+ * In-process copy of {@code asset_prices_ring}: one 1440-slot ring per symbol, indexed by
+ * minute of day like {@link AssetPriceRepository#slotOf}. Prices are stored as fixed-point
+ * longs with {@link #PRICE_SCALE} decimals and timestamps as epoch millis.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceHistoryStore {
+
+  private static final Logger log = LoggerFactory.getLogger(PriceHistoryStore.class);
+
+  static final int PRICE_SCALE = 8;
+  private static final long WINDOW_MILLIS = 24L * 60 * 60 * 1000;
+  private static final long MINUTE_MILLIS = 60_000L;
+  private static final long EMPTY = Long.MIN_VALUE;
+
+  private final AssetPriceRepository repo;
+
+  private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+
+  @Order(0)
+  @EventListener(ApplicationReadyEvent.class)
+  public void reload() {
+    try {
+      var ticks = repo.find24hHistoryAllSymbols();
+      ticks.forEach(this::record);
+      loaded = true;
+      log.info("Loaded {} ticks into price history store", ticks.size());
+    } catch (Exception e) {
+      log.warn("Price history reload failed, serving history from the database: {}", e.getMessage());
+    }
+  }
+
+  public void record(AssetPriceRepository.PriceTick tick) {
+    rings.computeIfAbsent(tick.assetSymbol(), s -> new Ring()).write(tick);
+  }
+
+  public Set<String> symbols() {
+    return rings.keySet();
+  }
+
+  public List<AssetPriceRepository.PriceTick> history(String assetSymbol) {
+    return history(assetSymbol, 0);
+  }
+
+  /**
+   * Last 24 hours oldest-first, reduced to at most {@code maxPoints} ticks with
+   * largest-triangle-three-buckets; the first and last tick are always kept, so a limit must be
+   * at least 2. {@code 0} returns every tick.
+   */
+  public List<AssetPriceRepository.PriceTick> history(String assetSymbol, int maxPoints) {
+    if (!loaded) {
+      var ticks = repo.find24hHistory(assetSymbol);
+      if (maxPoints <= 0 || ticks.size() <= maxPoints) return ticks;
+      int[] keep = lttb(ticks.size(), maxPoints,
+        i -> ticks.get(i).sourceTsUtc().toEpochMilli(), i -> ticks.get(i).priceUsd().doubleValue());
+      var out = new ArrayList<AssetPriceRepository.PriceTick>(keep.length);
+      for (int i : keep) out.add(ticks.get(i));
+      return out;
+    }
+    Ring ring = rings.get(assetSymbol);
+    return ring == null ? List.of() : ring.read(assetSymbol, System.currentTimeMillis(), maxPoints);
+  }
+
+  /**
+   * Carry ticks for every minute of the last 24 hours, up to the last completed minute, that has
+   * no tick: each repeats the previous price. Minutes before a symbol's first known price are left
+   * empty. Only computes them; the caller {@link #record}s those it managed to persist, so a
+   * failed write leaves the gap to be filled on the next run. Empty when the store is not loaded.
+   */
+  public List<AssetPriceRepository.PriceTick> fillGaps(Collection<String> assetSymbols, long nowMillis) {
+    if (!loaded) return List.of();
+    var carries = new ArrayList<AssetPriceRepository.PriceTick>();
+    for (String symbol : assetSymbols) {
+      Ring ring = rings.get(symbol);
+      if (ring != null) ring.fillGaps(symbol, nowMillis, carries);
+    }
+    return carries;
+  }
+
+  static long toFixed(BigDecimal price) {
+    return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  static BigDecimal fromFixed(long fixed) {
+    return BigDecimal.valueOf(fixed, PRICE_SCALE);
+  }
+
+  /**
+   * Indices of the points kept by largest-triangle-three-buckets: the first and last point, plus
+   * from each of {@code maxPoints - 2} equal buckets the point forming the largest triangle with
+   * the previously kept point and the average of the next bucket. One pass, no boxing.
+   */
+  static int[] lttb(int n, int maxPoints, IntToDoubleFunction x, IntToDoubleFunction y) {
+    if (maxPoints < 2) throw new IllegalArgumentException("maxPoints must be at least 2");
+    if (maxPoints >= n) {
+      int[] all = new int[n];
+      for (int i = 0; i < n; i++) all[i] = i;
+      return all;
+    }
+    int[] keep = new int[maxPoints];
+    keep[0] = 0;
+    double every = (double) (n - 2) / (maxPoints - 2);
+    int a = 0;
+    for (int b = 0; b < maxPoints - 2; b++) {
+      int avgStart = (int) ((b + 1) * every) + 1;
+      int avgEnd = Math.min((int) ((b + 2) * every) + 1, n);
+      double avgX = 0, avgY = 0;
+      for (int j = avgStart; j < avgEnd; j++) {
+        avgX += x.applyAsDouble(j);
+        avgY += y.applyAsDouble(j);
+      }
+      int avgCount = avgEnd - avgStart;
+      avgX /= avgCount;
+      avgY /= avgCount;
+
+      double ax = x.applyAsDouble(a), ay = y.applyAsDouble(a);
+      double maxArea = -1;
+      int next = a + 1;
+      for (int j = (int) (b * every) + 1, end = (int) ((b + 1) * every) + 1; j < end; j++) {
+        double area = Math.abs((ax - avgX) * (y.applyAsDouble(j) - ay) - (ax - x.applyAsDouble(j)) * (avgY - ay));
+        if (area > maxArea) {
+          maxArea = area;
+          next = j;
+        }
+      }
+      keep[b + 1] = next;
+      a = next;
+    }
+    keep[maxPoints - 1] = n - 1;
+    return keep;
+  }
+
+  private static final class Ring {
+
+    private final long[] prices = new long[SLOTS];
+    private final long[] sourceTs = new long[SLOTS];
+    private final long[] ingestedTs = new long[SLOTS];
+    private final boolean[] carry = new boolean[SLOTS];
+    private final StampedLock lock = new StampedLock();
+
+    Ring() {
+      Arrays.fill(sourceTs, EMPTY);
+    }
+
+    void write(AssetPriceRepository.PriceTick tick) {
+      int slot = AssetPriceRepository.slotOf(tick.sourceTsUtc());
+      long src = tick.sourceTsUtc().toEpochMilli();
+      long price = toFixed(tick.priceUsd());
+      long stamp = lock.writeLock();
+      try {
+        if (src < sourceTs[slot]) return;
+        prices[slot] = price;
+        sourceTs[slot] = src;
+        ingestedTs[slot] = tick.ingestedTsUtc().toEpochMilli();
+        carry[slot] = tick.isCarry();
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Walks the ring oldest-first starting after the current minute's slot. That slot is
+     * emitted first while it still holds yesterday's tick and last once it has been overwritten.
+     */
+    List<AssetPriceRepository.PriceTick> read(String assetSymbol, long nowMillis, int maxPoints) {
+      long cutoff = nowMillis - WINDOW_MILLIS;
+      long minuteStart = nowMillis - Math.floorMod(nowMillis, MINUTE_MILLIS);
+      int current = AssetPriceRepository.slotOf(Instant.ofEpochMilli(nowMillis));
+      int[] order = new int[SLOTS];
+      int n = 0;
+
+      long stamp = lock.readLock();
+      try {
+        boolean currentIsStale = sourceTs[current] < minuteStart;
+        if (currentIsStale && sourceTs[current] >= cutoff) order[n++] = current;
+        for (int i = 1; i < SLOTS; i++) {
+          int slot = (current + i) % SLOTS;
+          if (sourceTs[slot] >= cutoff) order[n++] = slot;
+        }
+        if (!currentIsStale) order[n++] = current;
+
+        int[] keep = maxPoints > 0 && n > maxPoints
+          ? lttb(n, maxPoints, i -> sourceTs[order[i]], i -> prices[order[i]])
+          : null;
+        int size = keep == null ? n : keep.length;
+        var out = new ArrayList<AssetPriceRepository.PriceTick>(size);
+        for (int i = 0; i < size; i++) out.add(tick(assetSymbol, order[keep == null ? i : keep[i]]));
+        return out;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    void fillGaps(String assetSymbol, long nowMillis, List<AssetPriceRepository.PriceTick> out) {
+      long currentMinute = nowMillis - Math.floorMod(nowMillis, MINUTE_MILLIS);
+      long firstMinute = currentMinute - (SLOTS - 1) * MINUTE_MILLIS;
+
+      long stamp = lock.readLock();
+      try {
+        boolean known = false;
+        long last = 0;
+        long lastTs = EMPTY;
+        for (int slot = 0; slot < SLOTS; slot++) {
+          if (sourceTs[slot] < firstMinute && sourceTs[slot] > lastTs) {
+            lastTs = sourceTs[slot];
+            last = prices[slot];
+            known = true;
+          }
+        }
+        for (long minute = firstMinute; minute < currentMinute; minute += MINUTE_MILLIS) {
+          int slot = AssetPriceRepository.slotOf(Instant.ofEpochMilli(minute));
+          if (sourceTs[slot] >= minute) {
+            last = prices[slot];
+            known = true;
+          } else if (known) {
+            out.add(new AssetPriceRepository.PriceTick(assetSymbol, slot, fromFixed(last),
+              Instant.ofEpochMilli(minute), Instant.ofEpochMilli(nowMillis), true));
+          }
+        }
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    private AssetPriceRepository.PriceTick tick(String assetSymbol, int slot) {
+      return new AssetPriceRepository.PriceTick(
+        assetSymbol, slot, fromFixed(prices[slot]),
+        Instant.ofEpochMilli(sourceTs[slot]), Instant.ofEpochMilli(ingestedTs[slot]), carry[slot]);
+    }
+  }
+}
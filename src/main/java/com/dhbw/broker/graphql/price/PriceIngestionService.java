@@ -1,15 +1,17 @@
 package com.dhbw.broker.graphql.price;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -19,67 +21,72 @@ public class PriceIngestionService {
 
   private final ExternalPriceClient external;
   private final AssetPriceRepository repo;
-  private final ObjectMapper om;
+  private final LatestPriceCache latestPrices;
+  private final PriceHistoryStore history;
+  private final PriceTickPublisher publisher;
+  private final CandleStore candles;
+  private final PricePayloadParser parser;
 
  
-  public void recordNow(String assetSymbol) {
-    try {
-      String json = external.fetchPrice(assetSymbol); 
-      if (json == null || json.isBlank()) {
-        log.warn("Empty price response for {}", assetSymbol);
-        return;
-      }
-      BigDecimal price = parsePrice(json, assetSymbol);
-      if (price == null) {
-        log.warn("Cannot parse price for {} from {}", assetSymbol, json);
-        return;
-      }
-      Instant nowUtc = Instant.now().atOffset(ZoneOffset.UTC).toInstant();
-
-      repo.insertTick(assetSymbol, price, nowUtc, false);
-      log.info("Recorded {} = {} @ {}", assetSymbol, price, nowUtc);
-
-    } catch (Exception e) {
-      log.error("recordNow failed for {}: {}", assetSymbol, e.getMessage(), e);
-    }
+  /**
+   * Fetches one tick. Nothing is published yet: {@link #persist} writes a whole cycle at once
+   * and only then hands the written ticks to the in-memory stores.
+   */
+  public Mono<AssetPriceRepository.PriceTick> recordNow(String assetSymbol) {
+    return external.fetchPrice(assetSymbol)
+      .mapNotNull(json -> toTick(assetSymbol, json));
   }
 
-  
-  public void purgeOlderThan24h() {
-    int n = repo.purgeOlderThan24h();
-    if (n > 0) log.info("Purged {} old ticks (>24h)", n);
+  private void apply(AssetPriceRepository.PriceTick tick) {
+    latestPrices.put(tick);
+    history.record(tick);
+    candles.record(tick);
+    publisher.publish(tick);
   }
 
-  private BigDecimal parsePrice(String json, String symbol) {
-    try {
-      JsonNode root = om.readTree(json);
-      if (root.has("price")) return new BigDecimal(root.get("price").asText());
-      if (root.has("data") && root.get("data").has("price")) return new BigDecimal(root.get("data").get("price").asText());
-      if (root.has(symbol)) return new BigDecimal(root.get(symbol).asText());
-      if (root.has("rates") && root.get("rates").has(symbol)) return new BigDecimal(root.get("rates").get(symbol).asText());
-   
-      return findFirstNumber(root);
-    } catch (Exception e) {
-      log.error("parsePrice error for {}: {}", symbol, e.getMessage());
-      return null;
+  /**
+   * Stamps {@code ingestedTsUtc}, writes the ticks as one batch and applies every tick that was
+   * written to the in-memory stores, so they never show a price the database does not have.
+   * Returns the number of ticks written.
+   */
+  public int persist(List<AssetPriceRepository.PriceTick> ticks) {
+    var ingestedAt = Instant.now();
+    var stamped = new ArrayList<AssetPriceRepository.PriceTick>(ticks.size());
+    for (var t : ticks) {
+      stamped.add(new AssetPriceRepository.PriceTick(
+        t.assetSymbol(), t.slot(), t.priceUsd(), t.sourceTsUtc(), ingestedAt, t.isCarry()));
+    }
+    int[] counts = repo.upsertTicks(stamped);
+    int written = 0;
+    for (int i = 0; i < counts.length; i++) {
+      var t = stamped.get(i);
+      if (counts[i] == Statement.EXECUTE_FAILED) {
+        log.error("Persisting {} @ {} failed", t.assetSymbol(), t.sourceTsUtc());
+      } else {
+        written++;
+        apply(t);
+        log.info("Recorded {} = {} @ {}", t.assetSymbol(), t.priceUsd(), t.sourceTsUtc());
+      }
     }
+    return written;
   }
 
-  private BigDecimal findFirstNumber(JsonNode node) {
-    if (node.isNumber()) return new BigDecimal(node.asText());
-    if (node.isObject()) {
-      var it = node.fieldNames();
-      while (it.hasNext()) {
-        var v = findFirstNumber(node.get(it.next()));
-        if (v != null) return v;
-      }
+  private AssetPriceRepository.PriceTick toTick(String assetSymbol, String json) {
+    if (json.isBlank()) {
+      log.warn("Empty price response for {}", assetSymbol);
+      return null;
     }
-    if (node.isArray()) {
-      for (JsonNode n : node) {
-        var v = findFirstNumber(n);
-        if (v != null) return v;
-      }
+    BigDecimal price = parsePrice(json, assetSymbol);
+    if (price == null) {
+      log.warn("Cannot parse price for {} from {}", assetSymbol, json);
+      return null;
     }
-    return null;
+    Instant nowUtc = Instant.now().atOffset(ZoneOffset.UTC).toInstant();
+    return new AssetPriceRepository.PriceTick(
+      assetSymbol, AssetPriceRepository.slotOf(nowUtc), price, nowUtc, nowUtc, false);
+  }
+
+  BigDecimal parsePrice(String json, String symbol) {
+    return parser.parse(json, symbol);
   }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.dhbw.broker.graphql.price;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pulls the price out of a provider payload without building a tree.
+ * <p>
+ * The first payload for a symbol is scanned once, preferring {@code price}, {@code data.price},
+ * {@code <symbol>}, {@code rates.<symbol>} and finally the first number in the document. The
+ * winning path is remembered, so later payloads only walk down that path and skip everything else.
+ * Text values count only on the named paths, for a remembered path just as during the scan.
+ */
+@Component
+public class PricePayloadParser {
+
+  private static final Logger log = LoggerFactory.getLogger(PricePayloadParser.class);
+
+  private static final int FIRST_NUMBER = 4;
+
+  private final JsonFactory factory;
+  private record PricePath(JsonPointer pointer, boolean allowText) {}
+
+  private final ConcurrentHashMap<String, PricePath> paths = new ConcurrentHashMap<>();
+
+  public PricePayloadParser(ObjectMapper om) {
+    this.factory = om.getFactory();
+  }
+
+  public BigDecimal parse(String json, String symbol) {
+    try {
+      PricePath known = paths.get(symbol);
+      if (known != null) {
+        BigDecimal price = follow(json, known.pointer(), known.allowText());
+        if (price != null) return price;
+        log.debug("Payload shape for {} changed, no value at {}", symbol, known.pointer());
+      }
+      return discover(json, symbol);
+    } catch (Exception e) {
+      log.error("parsePrice error for {}: {}", symbol, e.getMessage());
+      return null;
+    }
+  }
+
+  private BigDecimal follow(String json, JsonPointer path, boolean allowText) throws IOException {
+    try (JsonParser p = factory.createParser(json)) {
+      JsonToken t = p.nextToken();
+      while (!path.matches()) {
+        if (t == JsonToken.START_OBJECT) {
+          String name = path.getMatchingProperty();
+          while ((t = p.nextToken()) == JsonToken.FIELD_NAME) {
+            t = p.nextToken();
+            if (name.equals(p.currentName())) break;
+            p.skipChildren();
+          }
+          if (t == JsonToken.END_OBJECT) return null;
+        } else if (t == JsonToken.START_ARRAY) {
+          int index = path.getMatchingIndex();
+          if (index < 0) return null;
+          for (int i = 0; ; i++) {
+            t = p.nextToken();
+            if (t == JsonToken.END_ARRAY) return null;
+            if (i == index) break;
+            p.skipChildren();
+          }
+        } else {
+          return null;
+        }
+        path = path.tail();
+      }
+      return value(p, t, allowText);
+    }
+  }
+
+  private BigDecimal discover(String json, String symbol) throws IOException {
+    BigDecimal best = null;
+    JsonPointer bestPath = null;
+    int bestRank = Integer.MAX_VALUE;
+
+    try (JsonParser p = factory.createParser(json)) {
+      JsonToken t;
+      while ((t = p.nextToken()) != null) {
+        if (!t.isScalarValue()) continue;
+        int rank = rank(p.getParsingContext(), symbol);
+        if (rank >= bestRank) continue;
+        BigDecimal v = value(p, t, rank < FIRST_NUMBER);
+        if (v == null) continue;
+        best = v;
+        bestRank = rank;
+        bestPath = p.getParsingContext().pathAsPointer();
+        if (rank == 0) break;
+      }
+    }
+    if (bestPath != null) paths.put(symbol, new PricePath(bestPath, bestRank < FIRST_NUMBER));
+    return best;
+  }
+
+  /** Preference of the value at {@code ctx}; lower wins, {@link #FIRST_NUMBER} for anything else. */
+  private static int rank(JsonStreamContext ctx, String symbol) {
+    if (!ctx.inObject()) return FIRST_NUMBER;
+    String name = ctx.getCurrentName();
+    JsonStreamContext parent = ctx.getParent();
+    if (parent.inRoot()) {
+      if ("price".equals(name)) return 0;
+      if (symbol.equals(name)) return 2;
+    } else if (parent.inObject() && parent.getParent().inRoot()) {
+      String parentName = parent.getCurrentName();
+      if ("data".equals(parentName) && "price".equals(name)) return 1;
+      if ("rates".equals(parentName) && symbol.equals(name)) return 3;
+    }
+    return FIRST_NUMBER;
+  }
+
+  private static BigDecimal value(JsonParser p, JsonToken t, boolean allowText) throws IOException {
+    if (t == JsonToken.VALUE_NUMBER_INT || t == JsonToken.VALUE_NUMBER_FLOAT) return p.getDecimalValue();
+    if (allowText && t == JsonToken.VALUE_STRING) {
+      try {
+        return new BigDecimal(p.getText().trim());
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+}
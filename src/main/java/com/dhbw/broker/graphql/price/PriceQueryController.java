@@ -12,20 +12,29 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PriceQueryController {
 
-  private final AssetPriceRepository repository;
+  private final LatestPriceCache latestPrices;
+  private final PriceHistoryStore history;
+  private final CandleStore candles;
 
   @QueryMapping
   public AssetPriceRepository.PriceTick latestPrice(@Argument String assetSymbol) {
-    return repository.findLatest(assetSymbol);
+    return latestPrices.get(assetSymbol);
   }
 
   @QueryMapping
-  public List<AssetPriceRepository.PriceTick> priceHistory24h(@Argument String assetSymbol) {
-    return repository.find24hHistory(assetSymbol);
+  public List<AssetPriceRepository.PriceTick> priceHistory24h(@Argument String assetSymbol, @Argument Integer maxPoints) {
+    if (maxPoints == null) return history.history(assetSymbol);
+    if (maxPoints < 2) throw new IllegalArgumentException("maxPoints must be at least 2");
+    return history.history(assetSymbol, maxPoints);
   }
 
   @QueryMapping
   public AssetPriceRepository.PriceTick currentPrice(@Argument String assetSymbol) {
-    return repository.findLatest(assetSymbol);
+    return latestPrices.get(assetSymbol);
+  }
+
+  @QueryMapping
+  public List<CandleStore.Candle> priceCandles(@Argument String assetSymbol, @Argument CandleStore.CandleInterval interval) {
+    return candles.candles(assetSymbol, interval);
   }
 }
\ No newline at end of file
@@ -1,12 +1,24 @@
 package com.dhbw.broker.graphql.price;
 
+import com.dhbw.broker.graphql.trade.AssetRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @RequiredArgsConstructor
@@ -15,19 +27,75 @@ public class PriceScheduler {
   private static final Logger log = LoggerFactory.getLogger(PriceScheduler.class);
 
   private final PriceIngestionService ingestion;
+  private final AssetRegistry assets;
+  private final AdaptivePollSchedule schedule;
+  private final MeterRegistry meters;
 
- 
-  private final List<String> symbols = List.of("XAU", "XAG", "BTC", "ETH", "XPD", "HG");
+  @Value("${price.fetch.concurrency:6}")
+  private int concurrency;
 
- 
-  @Scheduled(fixedRateString = "60000") 
+  @Value("${price.fetch.cycle-timeout-ms:45000}")
+  private long cycleTimeoutMs;
+
+  /**
+   * Polls the active assets that are due according to {@link AdaptivePollSchedule}; the set is
+   * read from the asset registry on every tick, so new or deactivated assets need no redeploy.
+   */
+  @Scheduled(fixedDelayString = "${price.poll.tick-ms:5000}")
   public void collect() {
-    int ok=0, err=0;
-    for (String s : symbols) {
-      try { ingestion.recordNow(s); ok++; }
-      catch (Exception e) { err++; log.error("record {} failed: {}", s, e.getMessage()); }
+    var active = new HashMap<String, Integer>();
+    for (var asset : assets.all()) {
+      if (asset.isActive()) active.put(asset.assetSymbol(), asset.pollIntervalSeconds());
+    }
+    var due = schedule.due(active, System.currentTimeMillis());
+    if (due.isEmpty()) return;
+
+    var sample = Timer.start(meters);
+    var err = new AtomicInteger();
+    var answered = ConcurrentHashMap.<String>newKeySet();
+    int ok = 0;
+    try {
+      var ticks = Flux.fromIterable(due)
+        .flatMap(s -> ingestion.recordNow(s)
+          .doOnNext(t -> {
+            answered.add(s);
+            schedule.succeeded(s, t.priceUsd(), System.currentTimeMillis());
+          })
+          .onErrorResume(e -> {
+            err.incrementAndGet();
+            log.error("record {} failed: {}", s, e.getMessage());
+            return Mono.empty();
+          }), concurrency)
+        .take(Duration.ofMillis(cycleTimeoutMs))
+        .collectList()
+        .block();
+      ok = ingestion.persist(ticks);
+      err.addAndGet(ticks.size() - ok);
+      recordPersistDelay(ticks);
+    } catch (Exception e) {
+      err.incrementAndGet();
+      log.error("collect cycle failed: {}", e.getMessage());
+    }
+    long now = System.currentTimeMillis();
+    for (var s : due) {
+      if (!answered.contains(s)) schedule.failed(s, now);
+    }
+    sample.stop(meters.timer("price.collect.cycle"));
+    Counter.builder("price.collect.ticks").tag("outcome", "ok").register(meters).increment(ok);
+    Counter.builder("price.collect.ticks").tag("outcome", "error").register(meters).increment(err.get());
+    log.info("collect done due={} ok={} err={}", due.size(), ok, err.get());
+  }
+
+  /**
+   * Time from receiving a tick until its cycle's batch write returned, per symbol. The price
+   * payloads carry no quote timestamp, so {@code sourceTsUtc} is the receive time and this does
+   * not include the provider's own delay.
+   */
+  private void recordPersistDelay(List<AssetPriceRepository.PriceTick> ticks) {
+    var persistedAt = Instant.now();
+    for (var t : ticks) {
+      meters.timer("price.persist.delay", "symbol", t.assetSymbol())
+        .record(Duration.between(t.sourceTsUtc(), persistedAt));
     }
-    try { ingestion.purgeOlderThan24h(); } catch (Exception e) { log.error("purge failed: {}", e.getMessage()); }
-    log.info("collect done ok={} err={}", ok, err);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.dhbw.broker.graphql.price;
+
+import java.util.List;
+
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@Controller
+@RequiredArgsConstructor
+public class PriceSubscriptionController {
+
+  private final PriceTickPublisher publisher;
+
+  @SubscriptionMapping
+  public Flux<AssetPriceRepository.PriceTick> priceTicks(@Argument List<String> assetSymbols) {
+    return publisher.ticks(assetSymbols);
+  }
+}
@@ -0,0 +1,35 @@
+package com.dhbw.broker.graphql.price;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Fans recorded ticks out to {@code priceTicks} subscribers. Each subscriber is conflated per
+ * symbol: one that cannot keep up only ever sees the newest tick for a symbol, so a slow
+ * consumer costs at most one buffered tick per symbol and never holds back the others.
+ */
+@Component
+public class PriceTickPublisher {
+
+  private static final int MAX_SYMBOLS = 256;
+
+  private final Sinks.Many<AssetPriceRepository.PriceTick> sink =
+    Sinks.many().multicast().directBestEffort();
+
+  public void publish(AssetPriceRepository.PriceTick tick) {
+    sink.emitNext(tick, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+  }
+
+  public Flux<AssetPriceRepository.PriceTick> ticks(Collection<String> assetSymbols) {
+    Set<String> wanted = assetSymbols == null || assetSymbols.isEmpty() ? null : Set.copyOf(assetSymbols);
+    return sink.asFlux()
+      .filter(t -> wanted == null || wanted.contains(t.assetSymbol()))
+      .groupBy(AssetPriceRepository.PriceTick::assetSymbol)
+      .flatMap(bySymbol -> bySymbol.onBackpressureLatest(), MAX_SYMBOLS, 1);
+  }
+}
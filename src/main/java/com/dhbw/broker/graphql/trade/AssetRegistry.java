@@ -0,0 +1,85 @@
+package com.dhbw.broker.graphql.trade;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot of the {@code assets} table. Loaded at startup and refreshed periodically; lookups
+ * of known symbols never hit the database. Unknown symbols fall through to a single lookup so
+ * newly added assets are tradable before the next refresh; a symbol that is not found is
+ * remembered as unknown until the next refresh or {@link #invalidate}, so repeated requests for
+ * it do not reach the database either.
+ */
+@Component
+@RequiredArgsConstructor
+public class AssetRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetRegistry.class);
+    private static final int MAX_UNKNOWN = 10_000;
+
+    private final AssetRepository repository;
+
+    private volatile Map<String, AssetRepository.Asset> assets = Map.of();
+    private final Set<String> unknown = ConcurrentHashMap.newKeySet();
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${assets.registry.refresh-ms:300000}",
+               initialDelayString = "${assets.registry.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            var loaded = new HashMap<String, AssetRepository.Asset>();
+            for (var asset : repository.findAll()) {
+                loaded.put(asset.assetSymbol(), asset);
+            }
+            assets = Map.copyOf(loaded);
+            unknown.clear();
+            log.debug("Asset registry loaded {} assets", loaded.size());
+        } catch (Exception e) {
+            log.warn("Asset registry refresh failed, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    public AssetRepository.Asset find(String assetSymbol) {
+        var asset = assets.get(assetSymbol);
+        if (asset != null) return asset;
+        if (unknown.contains(assetSymbol)) return null;
+
+        asset = repository.findBySymbol(assetSymbol);
+        if (asset != null) {
+            put(asset);
+        } else if (unknown.size() < MAX_UNKNOWN) {
+            unknown.add(assetSymbol);
+        }
+        return asset;
+    }
+
+    public Collection<AssetRepository.Asset> all() {
+        return assets.values();
+    }
+
+    public synchronized void invalidate(String assetSymbol) {
+        unknown.remove(assetSymbol);
+        var next = new HashMap<>(assets);
+        next.remove(assetSymbol);
+        assets = Map.copyOf(next);
+    }
+
+    private synchronized void put(AssetRepository.Asset asset) {
+        var next = new HashMap<>(assets);
+        next.put(asset.assetSymbol(), asset);
+        assets = Map.copyOf(next);
+    }
+}
@@ -1,24 +1,58 @@
 package com.dhbw.broker.graphql.trade;
 
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 @Repository
+@Observed(name = "broker.jdbc")
 @RequiredArgsConstructor
 public class AssetRepository {
 
+    private static final Logger log = LoggerFactory.getLogger(AssetRepository.class);
+
     private final JdbcTemplate jdbc;
 
+    private volatile String pollIntervalColumn = "poll_interval_seconds";
+
+    /**
+     * The per-asset polling interval column is added by {@code db/assets_poll_interval.sql}, not
+     * at startup. Until it exists every asset polls at the scheduler default.
+     */
+    @PostConstruct
+    void checkPollIntervalColumn() {
+        try {
+            Boolean present = jdbc.queryForObject("""
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_attribute
+                    WHERE attrelid = 'assets'::regclass AND attname = 'poll_interval_seconds' AND NOT attisdropped
+                )
+                """, Boolean.class);
+            if (!Boolean.TRUE.equals(present)) {
+                pollIntervalColumn = "NULL::integer AS poll_interval_seconds";
+                log.warn("assets.poll_interval_seconds is missing, polling every asset at the default interval; "
+                        + "run db/assets_poll_interval.sql");
+            }
+        } catch (Exception e) {
+            log.warn("Could not check assets.poll_interval_seconds: {}", e.getMessage());
+        }
+    }
+
     public record Asset(
             String assetSymbol,
             String name,
             boolean isActive,
-            BigDecimal minTradeIncrement
+            BigDecimal minTradeIncrement,
+            Integer pollIntervalSeconds
     ) {}
 
     private static Asset mapAsset(ResultSet rs) throws SQLException {
@@ -26,7 +60,8 @@ public class AssetRepository {
                 rs.getString("asset_symbol"),
                 rs.getString("name"),
                 rs.getBoolean("is_active"),
-                rs.getBigDecimal("min_trade_increment")
+                rs.getBigDecimal("min_trade_increment"),
+                rs.getObject("poll_interval_seconds", Integer.class)
         );
     }
 
@@ -44,11 +79,20 @@ public class AssetRepository {
     
     public Asset findBySymbol(String assetSymbol) {
         return jdbc.query("""
-            SELECT asset_symbol, name, is_active, min_trade_increment
+            SELECT asset_symbol, name, is_active, min_trade_increment, %s
             FROM assets
             WHERE asset_symbol = ?
-            """,
+            """.formatted(pollIntervalColumn),
             ps -> ps.setString(1, assetSymbol),
             rs -> rs.next() ? mapAsset(rs) : null);
     }
+
+    
+    public List<Asset> findAll() {
+        return jdbc.query("""
+            SELECT asset_symbol, name, is_active, min_trade_increment, %s
+            FROM assets
+            """.formatted(pollIntervalColumn),
+            (rs, i) -> mapAsset(rs));
+    }
 }
\ No newline at end of file
@@ -1,26 +1,31 @@
 package com.dhbw.broker.graphql.trade;
 
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 
 @Repository
+@Observed(name = "broker.jdbc")
 @RequiredArgsConstructor
 public class HeldTradeRepository {
 
     private final JdbcTemplate jdbc;
 
-  
-    private void ensureTable() {
+    @PostConstruct
+    void ensureTable() {
         jdbc.execute("""
             CREATE TABLE IF NOT EXISTS held_trades (
                 id BIGSERIAL PRIMARY KEY,
@@ -42,34 +47,8 @@ public class HeldTradeRepository {
         );
     }
 
-    
-    public void adjustHeldQuantity(UUID userId, String assetSymbol, BigDecimal delta) {
-        ensureTable();
-
-       
-        jdbc.update("""
-            INSERT INTO held_trades (user_id, asset_symbol, quantity, last_updated)
-            VALUES (?, ?, ?, now())
-            ON CONFLICT (user_id, asset_symbol)
-            DO UPDATE SET quantity = held_trades.quantity + EXCLUDED.quantity, last_updated = now();
-            """,
-            ps -> {
-                ps.setObject(1, userId);
-                ps.setString(2, assetSymbol);
-                ps.setBigDecimal(3, delta);
-            });
-
-     
-        jdbc.update("DELETE FROM held_trades WHERE user_id = ? AND asset_symbol = ? AND quantity <= 0",
-                ps -> {
-                    ps.setObject(1, userId);
-                    ps.setString(2, assetSymbol);
-                });
-    }
-
    
     public List<HeldTrade> findByUserId(UUID userId) {
-        ensureTable();
         return jdbc.query("SELECT id, asset_symbol, quantity, last_updated FROM held_trades WHERE user_id = ? AND quantity > 0 ORDER BY asset_symbol",
                 ps -> ps.setObject(1, userId),
                 rs -> {
@@ -81,42 +60,110 @@ public class HeldTradeRepository {
                 });
     }
 
-  
+    public record Drift(UUID userId, String assetSymbol, BigDecimal expectedQuantity, BigDecimal actualQuantity) {}
+
+    @FunctionalInterface
+    private interface UserFilter {
+        /** Binds the filter's parameters starting at {@code index} and returns the next free index. */
+        int bind(PreparedStatement ps, int index) throws SQLException;
+    }
+
     public void recomputeHeldTradesForUser(UUID userId) {
-        ensureTable();
-
-        
-        var rows = jdbc.query("""
-            SELECT asset_symbol, 
-                   SUM(CASE WHEN side::text = 'BUY' THEN quantity ELSE -quantity END) AS net_qty
-            FROM trades
-            WHERE user_id = ?
-            GROUP BY asset_symbol
-            """,
-                ps -> ps.setObject(1, userId),
-                rs -> {
-                    var r = new ArrayList<java.util.Map.Entry<String, BigDecimal>>();
-                    while (rs.next()) {
-                        String asset = rs.getString("asset_symbol");
-                        BigDecimal net = rs.getBigDecimal("net_qty");
-                        r.add(new java.util.AbstractMap.SimpleEntry<>(asset, net));
-                    }
-                    return r;
-                });
+        reconcileUser(userId, true);
+    }
 
- 
-        jdbc.update("DELETE FROM held_trades WHERE user_id = ?", ps -> ps.setObject(1, userId));
-
-        
-        for (var e : rows) {
-            if (e.getValue() != null && e.getValue().compareTo(BigDecimal.ZERO) > 0) {
-                jdbc.update("INSERT INTO held_trades (user_id, asset_symbol, quantity, last_updated) VALUES (?, ?, ?, now())",
-                        ps -> {
-                            ps.setObject(1, userId);
-                            ps.setString(2, e.getKey());
-                            ps.setBigDecimal(3, e.getValue());
-                        });
-            }
+    public List<Drift> reconcileUser(UUID userId, boolean repair) {
+        return reconcile("user_id = ?", repair, (ps, i) -> {
+            ps.setObject(i, userId);
+            return i + 1;
+        });
+    }
+
+    public List<Drift> reconcileUsers(Collection<UUID> userIds, boolean repair) {
+        if (userIds.isEmpty()) return List.of();
+        return reconcile("user_id = ANY(?)", repair, (ps, i) -> {
+            ps.setArray(i, ps.getConnection().createArrayOf("uuid", userIds.toArray()));
+            return i + 1;
+        });
+    }
+
+    /** Reconciles every user in {@code [fromInclusive, toExclusive)}; a null bound is open. */
+    public List<Drift> reconcileRange(UUID fromInclusive, UUID toExclusive, boolean repair) {
+        if (toExclusive == null) {
+            return reconcile("user_id >= ?", repair, (ps, i) -> {
+                ps.setObject(i, fromInclusive);
+                return i + 1;
+            });
         }
+        return reconcile("user_id >= ? AND user_id < ?", repair, (ps, i) -> {
+            ps.setObject(i, fromInclusive);
+            ps.setObject(i + 1, toExclusive);
+            return i + 2;
+        });
+    }
+
+    /**
+     * Compares {@code held_trades} with the quantities derived from {@code trades} for the
+     * users matching {@code userFilter} and returns every difference. Like
+     * {@link TradeRepository#executeTrade}, the derivation floors the holding at zero after every
+     * trade, so an oversell does not carry a negative balance into later buys. A running sum
+     * floored at zero equals the plain running sum minus its lowest prefix below zero, which
+     * window functions compute without replaying row by row. With {@code repair} the
+     * same statement deletes stale rows and upserts missing or wrong ones; matching rows are
+     * left untouched.
+     */
+    private List<Drift> reconcile(String userFilter, boolean repair, UserFilter filter) {
+        String sql = """
+            WITH running AS (
+                SELECT user_id, asset_symbol, delta,
+                       SUM(delta) OVER (PARTITION BY user_id, asset_symbol ORDER BY executed_at, trade_id) AS prefix
+                FROM (
+                    SELECT user_id, asset_symbol, executed_at, trade_id,
+                           CASE WHEN side::text = 'BUY' THEN quantity ELSE -quantity END AS delta
+                    FROM trades
+                    WHERE %1$s
+                ) t
+            ), expected AS (
+                SELECT user_id, asset_symbol, SUM(delta) - LEAST(MIN(prefix), 0) AS qty
+                FROM running
+                GROUP BY user_id, asset_symbol
+                HAVING SUM(delta) - LEAST(MIN(prefix), 0) > 0
+            ), actual AS (
+                SELECT user_id, asset_symbol, quantity AS qty
+                FROM held_trades
+                WHERE %1$s
+            ), drift AS (
+                SELECT COALESCE(e.user_id, a.user_id) AS user_id,
+                       COALESCE(e.asset_symbol, a.asset_symbol) AS asset_symbol,
+                       e.qty AS expected_qty,
+                       a.qty AS actual_qty
+                FROM expected e
+                FULL JOIN actual a ON a.user_id = e.user_id AND a.asset_symbol = e.asset_symbol
+                WHERE e.qty IS DISTINCT FROM a.qty
+            )%2$s
+            SELECT user_id, asset_symbol, expected_qty, actual_qty
+            FROM drift
+            """.formatted(userFilter, repair ? """
+            , removed AS (
+                DELETE FROM held_trades h
+                USING drift d
+                WHERE h.user_id = d.user_id AND h.asset_symbol = d.asset_symbol
+                  AND d.expected_qty IS NULL
+            ), upserted AS (
+                INSERT INTO held_trades (user_id, asset_symbol, quantity, last_updated)
+                SELECT user_id, asset_symbol, expected_qty, now()
+                FROM drift
+                WHERE expected_qty IS NOT NULL
+                ON CONFLICT (user_id, asset_symbol)
+                DO UPDATE SET quantity = EXCLUDED.quantity, last_updated = now()
+            )""" : "");
+
+        return jdbc.query(sql,
+                ps -> filter.bind(ps, filter.bind(ps, 1)),
+                (rs, n) -> new Drift(
+                        (UUID) rs.getObject("user_id"),
+                        rs.getString("asset_symbol"),
+                        rs.getBigDecimal("expected_qty"),
+                        rs.getBigDecimal("actual_qty")));
     }
 }
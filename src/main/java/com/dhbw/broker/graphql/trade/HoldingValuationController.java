@@ -0,0 +1,41 @@
+package com.dhbw.broker.graphql.trade;
+
+import com.dhbw.broker.graphql.price.AssetPriceRepository;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+public class HoldingValuationController {
+
+    @SchemaMapping(typeName = "HeldTrade")
+    public CompletableFuture<AssetPriceRepository.PriceTick> currentPrice(
+            HeldTrade held, DataLoader<String, AssetPriceRepository.PriceTick> prices) {
+        return prices.load(held.assetSymbol());
+    }
+
+    @SchemaMapping(typeName = "HeldTrade")
+    public CompletableFuture<BigDecimal> marketValueUsd(
+            HeldTrade held, DataLoader<String, AssetPriceRepository.PriceTick> prices) {
+        return prices.load(held.assetSymbol()).thenApply(tick -> marketValue(held.quantity(), tick));
+    }
+
+    @SchemaMapping(typeName = "Trade")
+    public CompletableFuture<AssetPriceRepository.PriceTick> currentPrice(
+            TradeRepository.Trade trade, DataLoader<String, AssetPriceRepository.PriceTick> prices) {
+        return prices.load(trade.assetSymbol());
+    }
+
+    @SchemaMapping(typeName = "Trade")
+    public CompletableFuture<BigDecimal> marketValueUsd(
+            TradeRepository.Trade trade, DataLoader<String, AssetPriceRepository.PriceTick> prices) {
+        return prices.load(trade.assetSymbol()).thenApply(tick -> marketValue(trade.quantity(), tick));
+    }
+
+    private static BigDecimal marketValue(BigDecimal quantity, AssetPriceRepository.PriceTick tick) {
+        return tick == null || quantity == null ? null : quantity.multiply(tick.priceUsd());
+    }
+}
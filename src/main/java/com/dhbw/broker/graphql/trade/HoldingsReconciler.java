@@ -0,0 +1,146 @@
+package com.dhbw.broker.graphql.trade;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Rebuilds {@code held_trades} from {@code trades} with set-based SQL. Runs for one user, a set
+ * of users, or everyone; full runs split the UUID space into ranges and reconcile them in
+ * parallel. Each unit runs in a REPEATABLE READ transaction so a trade committed mid-run makes
+ * the unit retry instead of being overwritten with a stale quantity.
+ * <p>
+ * By default drift is only reported: logged and exposed as {@code holdings.reconcile.drifts}
+ * (drifts found by the last full run). Rewriting {@code held_trades} is opt-in through
+ * {@code holdings.reconcile.repair=true}.
+ */
+@Component
+public class HoldingsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingsReconciler.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    public record Report(int partitions, int failedPartitions, List<HeldTradeRepository.Drift> drifts, Duration elapsed) {}
+
+    private final HeldTradeRepository repository;
+    private final TransactionTemplate tx;
+    private final int parallelism;
+    private final int partitions;
+    private final boolean repair;
+    private final AtomicInteger lastDrifts = new AtomicInteger();
+    private final AtomicInteger lastFailedPartitions = new AtomicInteger();
+
+    public HoldingsReconciler(
+            HeldTradeRepository repository,
+            PlatformTransactionManager txManager,
+            MeterRegistry meters,
+            @Value("${holdings.reconcile.parallelism:4}") int parallelism,
+            @Value("${holdings.reconcile.partitions:32}") int partitions,
+            @Value("${holdings.reconcile.repair:false}") boolean repair) {
+        this.repository = repository;
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.parallelism = Math.max(1, parallelism);
+        this.partitions = Math.max(1, partitions);
+        this.repair = repair;
+        meters.gauge("holdings.reconcile.drifts", lastDrifts);
+        meters.gauge("holdings.reconcile.failed.partitions", lastFailedPartitions);
+    }
+
+    @Scheduled(cron = "${holdings.reconcile.cron:0 30 2 * * *}")
+    public void nightly() {
+        var report = reconcileAll();
+        lastDrifts.set(report.drifts().size());
+        lastFailedPartitions.set(report.failedPartitions());
+        if (report.drifts().isEmpty() && report.failedPartitions() == 0) {
+            log.info("Holdings reconciliation clean across {} partitions in {}", report.partitions(), report.elapsed());
+            return;
+        }
+        report.drifts().forEach(d -> log.warn("Holdings drift user={} asset={} expected={} actual={}",
+                d.userId(), d.assetSymbol(), d.expectedQuantity(), d.actualQuantity()));
+        log.warn("Holdings reconciliation found {} drifts, {} failed partitions, repair={}, took {}",
+                report.drifts().size(), report.failedPartitions(), repair, report.elapsed());
+    }
+
+    public Report reconcileUser(UUID userId) {
+        long start = System.nanoTime();
+        var drifts = inTransaction(() -> repository.reconcileUser(userId, repair));
+        return new Report(1, 0, drifts, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public Report reconcileUsers(Collection<UUID> userIds) {
+        long start = System.nanoTime();
+        var drifts = inTransaction(() -> repository.reconcileUsers(userIds, repair));
+        return new Report(1, 0, drifts, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public Report reconcileAll() {
+        long start = System.nanoTime();
+        List<UUID> bounds = partitionBounds(partitions);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            var futures = new ArrayList<Future<List<HeldTradeRepository.Drift>>>();
+            for (int i = 0; i < bounds.size(); i++) {
+                UUID from = bounds.get(i);
+                UUID to = i + 1 < bounds.size() ? bounds.get(i + 1) : null;
+                futures.add(pool.submit(() -> inTransaction(() -> repository.reconcileRange(from, to, repair))));
+            }
+
+            var drifts = new ArrayList<HeldTradeRepository.Drift>();
+            int failed = 0;
+            for (var f : futures) {
+                try {
+                    drifts.addAll(f.get());
+                } catch (Exception e) {
+                    failed++;
+                    log.error("Holdings reconciliation partition failed: {}", e.getMessage());
+                }
+            }
+            return new Report(bounds.size(), failed, drifts, Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<HeldTradeRepository.Drift> inTransaction(Supplier<List<HeldTradeRepository.Drift>> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) throw e;
+                log.debug("Reconciliation conflicted with a concurrent trade, retrying ({})", attempt);
+            }
+        }
+    }
+
+    /**
+     * Lower bounds of {@code n} equal ranges over the UUID space. PostgreSQL orders UUIDs by
+     * their bytes, which matches the unsigned order of the most significant long.
+     */
+    static List<UUID> partitionBounds(int n) {
+        long step = Long.divideUnsigned(-1L, n);
+        var bounds = new ArrayList<UUID>(n);
+        for (int i = 0; i < n; i++) {
+            bounds.add(new UUID(step * i, 0L));
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dhbw.broker.graphql.trade;
+
+import com.dhbw.broker.graphql.price.LatestPriceCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Values a user's portfolio from the incrementally maintained {@code user_positions} rows.
+ * Only the price side is recomputed per request; the trade history is never rescanned.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioService {
+
+    private final PositionRepository positionRepository;
+    private final LatestPriceCache latestPrices;
+
+    public record Portfolio(
+            BigDecimal totalValueUsd,
+            BigDecimal costBasisUsd,
+            BigDecimal realizedPnlUsd,
+            BigDecimal unrealizedPnlUsd,
+            List<PortfolioPosition> positions
+    ) {}
+
+    public record PortfolioPosition(
+            String assetSymbol,
+            BigDecimal quantity,
+            BigDecimal averageCostUsd,
+            BigDecimal costBasisUsd,
+            BigDecimal priceUsd,
+            BigDecimal marketValueUsd,
+            BigDecimal realizedPnlUsd,
+            BigDecimal unrealizedPnlUsd
+    ) {}
+
+    public Portfolio portfolio(UUID userId) {
+        var positions = positionRepository.findByUserId(userId);
+        var prices = latestPrices.getAll(positions.stream().map(PositionRepository.Position::assetSymbol).toList());
+
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        BigDecimal totalRealized = BigDecimal.ZERO;
+        BigDecimal totalUnrealized = BigDecimal.ZERO;
+        var rows = new ArrayList<PortfolioPosition>(positions.size());
+
+        for (var p : positions) {
+            BigDecimal held = p.quantity().max(BigDecimal.ZERO);
+            BigDecimal costBasis = held.multiply(p.avgCostUsd());
+            var tick = prices.get(p.assetSymbol());
+            BigDecimal price = tick == null ? null : tick.priceUsd();
+            BigDecimal marketValue = price == null ? null : held.multiply(price);
+            BigDecimal unrealized = marketValue == null ? null : marketValue.subtract(costBasis);
+
+            rows.add(new PortfolioPosition(p.assetSymbol(), p.quantity(), p.avgCostUsd(), costBasis,
+                    price, marketValue, p.realizedPnlUsd(), unrealized));
+
+            totalCost = totalCost.add(costBasis);
+            totalRealized = totalRealized.add(p.realizedPnlUsd());
+            if (marketValue != null) {
+                totalValue = totalValue.add(marketValue);
+                totalUnrealized = totalUnrealized.add(unrealized);
+            }
+        }
+        return new Portfolio(totalValue, totalCost, totalRealized, totalUnrealized, rows);
+    }
+}
@@ -0,0 +1,45 @@
+package com.dhbw.broker.graphql.trade;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-off job that fills {@code user_positions} from the trade history on a database that
+ * predates the table. Off by default; enable it with {@code positions.backfill.enabled=true}
+ * for a single deployment. Runs once the application is ready and does nothing when the table
+ * already has rows, so leaving it enabled is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "positions.backfill.enabled", havingValue = "true")
+public class PositionBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionBackfill.class);
+
+    private final PositionRepository repository;
+    private final TransactionTemplate tx;
+
+    public PositionBackfill(PositionRepository repository, PlatformTransactionManager txManager) {
+        this.repository = repository;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        try {
+            Integer written = tx.execute(status -> repository.backfillIfEmpty());
+            if (written == null || written < 0) {
+                log.info("Position backfill skipped, user_positions already populated or no trades");
+            } else {
+                log.info("Backfilled {} positions from trade history", written);
+            }
+        } catch (Exception e) {
+            log.error("Position backfill failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.dhbw.broker.graphql.trade;
+
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-user position state (quantity, average cost, realized PnL) in {@code user_positions}.
+ * Rows are maintained by {@link TradeRepository#executeTrade} in the same statement that
+ * records the trade; {@link #apply} mirrors that arithmetic for {@link PositionBackfill}.
+ */
+@Repository
+@Observed(name = "broker.jdbc")
+@RequiredArgsConstructor
+public class PositionRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public record Position(String assetSymbol, BigDecimal quantity, BigDecimal avgCostUsd, BigDecimal realizedPnlUsd) {}
+
+    private static Position mapPosition(ResultSet rs) throws SQLException {
+        return new Position(
+                rs.getString("asset_symbol"),
+                rs.getBigDecimal("quantity"),
+                rs.getBigDecimal("avg_cost_usd"),
+                rs.getBigDecimal("realized_pnl_usd")
+        );
+    }
+
+    @PostConstruct
+    void ensureTable() {
+        jdbc.execute("""
+            CREATE TABLE IF NOT EXISTS user_positions (
+                user_id UUID NOT NULL,
+                asset_symbol TEXT NOT NULL,
+                quantity NUMERIC NOT NULL,
+                avg_cost_usd NUMERIC NOT NULL,
+                realized_pnl_usd NUMERIC NOT NULL,
+                updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+                PRIMARY KEY (user_id, asset_symbol)
+            )
+            """);
+    }
+
+    public List<Position> findByUserId(UUID userId) {
+        return jdbc.query("""
+            SELECT asset_symbol, quantity, avg_cost_usd, realized_pnl_usd
+            FROM user_positions
+            WHERE user_id = ?
+            ORDER BY asset_symbol
+            """,
+            ps -> ps.setObject(1, userId),
+            (rs, i) -> mapPosition(rs));
+    }
+
+    /**
+     * Replays the trade history into an empty {@code user_positions} table and returns the
+     * number of rows written, or -1 when the table already has rows or there are no trades.
+     * Must run inside a transaction: the table lock holds back concurrent trades until the
+     * replayed rows are committed, so their upserts apply on top instead of being skipped.
+     */
+    int backfillIfEmpty() {
+        jdbc.execute("LOCK TABLE user_positions IN SHARE ROW EXCLUSIVE MODE");
+        Boolean needed = jdbc.queryForObject("""
+            SELECT NOT EXISTS (SELECT 1 FROM user_positions) AND EXISTS (SELECT 1 FROM trades)
+            """, Boolean.class);
+        if (!Boolean.TRUE.equals(needed)) return -1;
+
+        var rows = new ArrayList<Object[]>();
+        var state = new Object() {
+            UUID userId;
+            String assetSymbol;
+            Position position;
+        };
+        RowCallbackHandler replay = rs -> {
+            UUID userId = (UUID) rs.getObject("user_id");
+            String asset = rs.getString("asset_symbol");
+            if (!userId.equals(state.userId) || !asset.equals(state.assetSymbol)) {
+                if (state.position != null) rows.add(row(state.userId, state.position));
+                state.userId = userId;
+                state.assetSymbol = asset;
+                state.position = null;
+            }
+            state.position = apply(state.position, asset, rs.getString("side"),
+                    rs.getBigDecimal("quantity"), rs.getBigDecimal("price_usd"));
+        };
+        jdbc.query("""
+            SELECT user_id, asset_symbol, side::text AS side, quantity, price_usd
+            FROM trades
+            ORDER BY user_id, asset_symbol, executed_at, trade_id
+            """, replay);
+        if (state.position != null) rows.add(row(state.userId, state.position));
+
+        jdbc.batchUpdate("""
+            INSERT INTO user_positions (user_id, asset_symbol, quantity, avg_cost_usd, realized_pnl_usd, updated_at)
+            VALUES (?, ?, ?, ?, ?, now())
+            ON CONFLICT (user_id, asset_symbol) DO NOTHING
+            """, rows);
+        return rows.size();
+    }
+
+    private static Object[] row(UUID userId, Position p) {
+        return new Object[]{userId, p.assetSymbol(), p.quantity(), p.avgCostUsd(), p.realizedPnlUsd()};
+    }
+
+    /**
+     * Same rules as the {@code user_positions} upsert in {@link TradeRepository#executeTrade}:
+     * a sell without a position creates none and the quantity never drops below zero.
+     */
+    static Position apply(Position current, String assetSymbol, String side, BigDecimal quantity, BigDecimal priceUsd) {
+        BigDecimal delta = "BUY".equals(side) ? quantity : quantity.negate();
+        if (current == null) {
+            if (delta.signum() <= 0) return null;
+            return new Position(assetSymbol, delta, delta.signum() > 0 ? priceUsd : BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+        BigDecimal qty = current.quantity();
+        BigDecimal next = qty.add(delta).max(BigDecimal.ZERO);
+        BigDecimal avg;
+        BigDecimal realized = current.realizedPnlUsd();
+        if (delta.signum() > 0) {
+            avg = qty.signum() > 0
+                    ? qty.multiply(current.avgCostUsd()).add(delta.multiply(priceUsd)).divide(next, MathContext.DECIMAL128)
+                    : priceUsd;
+        } else {
+            BigDecimal closed = quantity.min(qty.max(BigDecimal.ZERO));
+            realized = realized.add(closed.multiply(priceUsd.subtract(current.avgCostUsd())));
+            avg = next.signum() > 0 ? current.avgCostUsd() : BigDecimal.ZERO;
+        }
+        return new Position(assetSymbol, next, avg, realized);
+    }
+}
@@ -0,0 +1,22 @@
+package com.dhbw.broker.graphql.trade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+public record TradeConnection(List<Edge> edges, PageInfo pageInfo) {
+
+    public record Edge(String cursor, TradeRepository.Trade node) {}
+
+    public record PageInfo(boolean hasNextPage, boolean hasPreviousPage, String startCursor, String endCursor) {}
+
+    static TradeConnection of(TradeRepository.TradePage page, boolean hasPreviousPage) {
+        var edges = new ArrayList<Edge>(page.trades().size());
+        for (var trade : page.trades()) {
+            edges.add(new Edge(TradeRepository.TradeCursor.of(trade).encode(), trade));
+        }
+        String start = edges.isEmpty() ? null : edges.get(0).cursor();
+        String end = edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor();
+        return new TradeConnection(edges, new PageInfo(page.hasNextPage(), hasPreviousPage, start, end));
+    }
+}
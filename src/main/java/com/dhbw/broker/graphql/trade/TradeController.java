@@ -1,6 +1,8 @@
 package com.dhbw.broker.graphql.trade;
 
 import com.dhbw.broker.graphql.price.AssetPriceRepository;
+import com.dhbw.broker.graphql.price.LatestPriceCache;
+import com.dhbw.broker.graphql.wallet.WalletCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -19,25 +22,65 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TradeController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TradeRepository tradeRepository;
-    private final AssetRepository assetRepository;
-    private final AssetPriceRepository priceRepository;
+    private final AssetRegistry assetRegistry;
+    private final LatestPriceCache latestPrices;
     private final HeldTradeRepository heldTradeRepository;
+    private final PortfolioService portfolioService;
+    private final WalletCache walletCache;
 
     @QueryMapping
-    public List<TradeRepository.Trade> userTrades() {
-        UUID userId = getCurrentUserId();
-        return tradeRepository.findByUserId(userId);
+    public TradeConnection userTrades(@Argument Integer first, @Argument String after,
+                                      @Argument String from, @Argument String to) {
+        return tradePage(null, first, after, from, to);
     }
 
     @QueryMapping
-    public List<TradeRepository.Trade> userTradesByAsset(@Argument String assetSymbol) {
+    public TradeConnection userTradesByAsset(@Argument String assetSymbol, @Argument Integer first,
+                                             @Argument String after, @Argument String from, @Argument String to) {
+        return tradePage(assetSymbol, first, after, from, to);
+    }
+
+    private TradeConnection tradePage(String assetSymbol, Integer first, String after, String from, String to) {
+        int limit = first == null ? DEFAULT_PAGE_SIZE : first;
+        if (limit < 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("first must be between 0 and " + MAX_PAGE_SIZE);
+        }
         UUID userId = getCurrentUserId();
-        return tradeRepository.findByUserIdAndAsset(userId, assetSymbol);
+        var cursor = after == null ? null : TradeRepository.TradeCursor.decode(after);
+        var page = tradeRepository.findPage(userId, assetSymbol, parseTimestamp(from), parseTimestamp(to), cursor, limit);
+        return TradeConnection.of(page, cursor != null);
+    }
+
+    private static OffsetDateTime parseTimestamp(String value) {
+        if (value == null) return null;
+        try {
+            return OffsetDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid ISO-8601 timestamp: " + value);
+        }
     }
 
     @MutationMapping
     public TradeRepository.TradeResult executeTrade(@Argument Map<String, Object> input) {
+        ValidatedTrade trade = validate(input);
+
+        UUID userId = getCurrentUserId();
+        OffsetDateTime executedAt = OffsetDateTime.now();
+        
+        var result = tradeRepository.executeTrade(userId, trade.assetSymbol(), trade.side(), trade.quantity(),
+                                                  trade.priceUsd(), executedAt);
+        walletCache.invalidate(WalletCache.currentUserKey());
+        return result;
+    }
+
+    record ValidatedTrade(String assetSymbol, String side, BigDecimal quantity, BigDecimal priceUsd) {}
+
+    /** Input checks plus asset and price lookups; served entirely from in-memory caches. */
+    ValidatedTrade validate(Map<String, Object> input) {
       
         String assetSymbol = (String) input.get("assetSymbol");
         String side = (String) input.get("side");
@@ -62,39 +105,22 @@ public class TradeController {
             throw new IllegalArgumentException("Quantity must be positive");
         }
 
-        
-        if (!assetRepository.isActiveAsset(assetSymbol)) {
+        AssetRepository.Asset asset = assetRegistry.find(assetSymbol);
+        if (asset == null || !asset.isActive()) {
             throw new IllegalArgumentException("Invalid or inactive asset: " + assetSymbol);
         }
 
-        
-        AssetRepository.Asset asset = assetRepository.findBySymbol(assetSymbol);
-        if (asset != null && asset.minTradeIncrement() != null && 
+        if (asset.minTradeIncrement() != null &&
             quantity.remainder(asset.minTradeIncrement()).compareTo(BigDecimal.ZERO) != 0) {
             throw new IllegalArgumentException("Quantity must be a multiple of " + asset.minTradeIncrement());
         }
 
-        AssetPriceRepository.PriceTick currentPrice = priceRepository.findLatest(assetSymbol);
+        AssetPriceRepository.PriceTick currentPrice = latestPrices.get(assetSymbol);
         if (currentPrice == null || currentPrice.priceUsd().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalStateException("Unable to get current price for asset: " + assetSymbol);
         }
 
-      
-        UUID userId = getCurrentUserId();
-        OffsetDateTime executedAt = OffsetDateTime.now();
-        
-        var result = tradeRepository.insertTrade(userId, assetSymbol, side, quantity, 
-                                         currentPrice.priceUsd(), executedAt);
-
-        
-        BigDecimal delta = quantity;
-        if ("SELL".equals(side)) {
-            delta = delta.negate();
-        }
-        
-        heldTradeRepository.adjustHeldQuantity(userId, assetSymbol, delta);
-
-        return result;
+        return new ValidatedTrade(assetSymbol, side, quantity, currentPrice.priceUsd());
     }
 
     @QueryMapping
@@ -103,6 +129,11 @@ public class TradeController {
         return heldTradeRepository.findByUserId(userId);
     }
 
+    @QueryMapping
+    public PortfolioService.Portfolio portfolio() {
+        return portfolioService.portfolio(getCurrentUserId());
+    }
+
     private UUID getCurrentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getName() == null) {
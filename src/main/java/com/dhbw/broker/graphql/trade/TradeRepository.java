@@ -1,21 +1,36 @@
 package com.dhbw.broker.graphql.trade;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
+@Observed(name = "broker.jdbc")
 @RequiredArgsConstructor
 public class TradeRepository {
 
+    private static final Logger log = LoggerFactory.getLogger(TradeRepository.class);
+
     private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
 
     public record Trade(
             UUID tradeId,
@@ -36,7 +51,60 @@ public class TradeRepository {
             BigDecimal quantity
     ) {}
 
-    private static Trade mapTrade(ResultSet rs) throws SQLException {
+    public record TradePage(List<Trade> trades, boolean hasNextPage) {}
+
+    /** Opaque pagination cursor: base64url of {@code executedAt|tradeId}. */
+    public record TradeCursor(OffsetDateTime executedAt, UUID tradeId) {
+
+        public static TradeCursor of(Trade trade) {
+            return new TradeCursor(trade.executedAt(), trade.tradeId());
+        }
+
+        public String encode() {
+            String raw = executedAt.toInstant() + "|" + tradeId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static TradeCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new TradeCursor(
+                        Instant.parse(raw.substring(0, sep)).atOffset(ZoneOffset.UTC),
+                        UUID.fromString(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    /**
+     * The keyset indexes are built by {@code db/trades_keyset_indexes.sql}, not at startup, since
+     * {@code CREATE INDEX CONCURRENTLY} can run for minutes on a large table. This only warns
+     * when one is missing or left INVALID by an interrupted build, as paging then falls back
+     * to sorting every trade of the user.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void checkIndexes() {
+        try {
+            List<String> unusable = jdbc.queryForList("""
+                SELECT n.name
+                FROM unnest(ARRAY['trades_user_executed_idx', 'trades_user_asset_executed_idx']) AS n(name)
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM pg_index i
+                    JOIN pg_class c ON c.oid = i.indexrelid
+                    WHERE i.indrelid = 'trades'::regclass AND c.relname = n.name AND i.indisvalid
+                )
+                """, String.class);
+            if (!unusable.isEmpty()) {
+                log.warn("Trade indexes missing or invalid: {}; run db/trades_keyset_indexes.sql", unusable);
+            }
+        } catch (Exception e) {
+            log.warn("Could not check trade indexes: {}", e.getMessage());
+        }
+    }
+
+    static Trade mapTrade(ResultSet rs) throws SQLException {
         return new Trade(
                 (UUID) rs.getObject("trade_id"),
                 rs.getString("asset_symbol"),
@@ -48,13 +116,82 @@ public class TradeRepository {
         );
     }
 
+    private static TradeResult mapTradeResult(ResultSet rs) throws SQLException {
+        return new TradeResult(
+                (UUID) rs.getObject("trade_id"),
+                rs.getObject("executed_at", OffsetDateTime.class),
+                rs.getBigDecimal("price_usd"),
+                rs.getString("asset_symbol"),
+                rs.getString("side"),
+                rs.getBigDecimal("quantity")
+        );
+    }
+
+    /**
+     * Records a trade and applies it to {@code held_trades} and {@code user_positions} in one
+     * transaction. The first statement inserts the trade and upserts both tables; a sell against
+     * no holding never creates a row. The second removes a holding that reached zero or below.
+     * It has to be a separate statement: a concurrent sell may have changed the row after the
+     * first statement's snapshot, and only the upsert sees that newer version.
+     * Positions keep average cost and realized PnL and are clamped at zero, see
+     * {@link PositionRepository#apply}.
+     */
+    public TradeResult executeTrade(UUID userId, String assetSymbol, String side,
+                                    BigDecimal quantity, BigDecimal priceUsd, OffsetDateTime executedAt) {
+        return tx.execute(status -> {
+            var result = insertAndApply(userId, assetSymbol, side, quantity, priceUsd, executedAt);
+            jdbc.update("DELETE FROM held_trades WHERE user_id = ? AND asset_symbol = ? AND quantity <= 0",
+                    userId, assetSymbol);
+            return result;
+        });
+    }
 
-    public TradeResult insertTrade(UUID userId, String assetSymbol, String side, 
-                                  BigDecimal quantity, BigDecimal priceUsd, OffsetDateTime executedAt) {
+    private TradeResult insertAndApply(UUID userId, String assetSymbol, String side,
+                                       BigDecimal quantity, BigDecimal priceUsd, OffsetDateTime executedAt) {
         return jdbc.query("""
-            INSERT INTO trades (user_id, asset_symbol, side, quantity, price_usd, executed_at)
-            VALUES (?, ?, ?::trade_side, ?, ?, ?)
-            RETURNING trade_id, executed_at, price_usd, asset_symbol, side::text, quantity
+            WITH ins AS (
+                INSERT INTO trades (user_id, asset_symbol, side, quantity, price_usd, executed_at)
+                VALUES (?, ?, ?::trade_side, ?, ?, ?)
+                RETURNING trade_id, user_id, executed_at, price_usd, asset_symbol, side, quantity
+            ), delta AS (
+                SELECT user_id, asset_symbol,
+                       CASE WHEN side::text = 'BUY' THEN quantity ELSE -quantity END AS qty
+                FROM ins
+            ), held AS (
+                INSERT INTO held_trades (user_id, asset_symbol, quantity, last_updated)
+                SELECT d.user_id, d.asset_symbol, d.qty, now()
+                FROM delta d
+                WHERE d.qty > 0
+                   OR EXISTS (SELECT 1 FROM held_trades h
+                              WHERE h.user_id = d.user_id AND h.asset_symbol = d.asset_symbol)
+                ON CONFLICT (user_id, asset_symbol)
+                DO UPDATE SET quantity = held_trades.quantity + EXCLUDED.quantity, last_updated = now()
+            ), pos AS (
+                INSERT INTO user_positions (user_id, asset_symbol, quantity, avg_cost_usd, realized_pnl_usd, updated_at)
+                SELECT d.user_id, d.asset_symbol, d.qty, CASE WHEN d.qty > 0 THEN ? ELSE 0 END, 0, now()
+                FROM delta d
+                WHERE d.qty > 0
+                   OR EXISTS (SELECT 1 FROM user_positions p
+                              WHERE p.user_id = d.user_id AND p.asset_symbol = d.asset_symbol)
+                ON CONFLICT (user_id, asset_symbol) DO UPDATE SET
+                    avg_cost_usd = CASE
+                        WHEN EXCLUDED.quantity > 0 AND user_positions.quantity > 0
+                            THEN (user_positions.quantity * user_positions.avg_cost_usd + EXCLUDED.quantity * EXCLUDED.avg_cost_usd)
+                                 / (user_positions.quantity + EXCLUDED.quantity)
+                        WHEN EXCLUDED.quantity > 0 THEN EXCLUDED.avg_cost_usd
+                        WHEN user_positions.quantity + EXCLUDED.quantity > 0 THEN user_positions.avg_cost_usd
+                        ELSE 0
+                    END,
+                    realized_pnl_usd = user_positions.realized_pnl_usd + CASE
+                        WHEN EXCLUDED.quantity < 0
+                            THEN LEAST(-EXCLUDED.quantity, GREATEST(user_positions.quantity, 0)) * (? - user_positions.avg_cost_usd)
+                        ELSE 0
+                    END,
+                    quantity = GREATEST(user_positions.quantity + EXCLUDED.quantity, 0),
+                    updated_at = now()
+            )
+            SELECT trade_id, executed_at, price_usd, asset_symbol, side::text AS side, quantity
+            FROM ins
             """,
             ps -> {
                 ps.setObject(1, userId);
@@ -63,60 +200,49 @@ public class TradeRepository {
                 ps.setBigDecimal(4, quantity);
                 ps.setBigDecimal(5, priceUsd);
                 ps.setObject(6, executedAt);
+                ps.setBigDecimal(7, priceUsd);
+                ps.setBigDecimal(8, priceUsd);
             },
-            rs -> {
-                if (rs.next()) {
-                    return new TradeResult(
-                            (UUID) rs.getObject("trade_id"),
-                            rs.getObject("executed_at", OffsetDateTime.class),
-                            rs.getBigDecimal("price_usd"),
-                            rs.getString("asset_symbol"),
-                            rs.getString("side"),
-                            rs.getBigDecimal("quantity")
-                    );
-                }
-                return null;
-            });
+            rs -> rs.next() ? mapTradeResult(rs) : null);
     }
 
-  
-    public List<Trade> findByUserId(UUID userId) {
-        return jdbc.query("""
-            SELECT t.trade_id, t.asset_symbol, t.side::text as side, t.quantity, 
+    /**
+     * One page of a user's trades, newest first, keyed on {@code (executed_at, trade_id)} so
+     * the cost depends on the page size and not on how far back the cursor points. Fetches one
+     * extra row to tell whether another page follows.
+     */
+    public TradePage findPage(UUID userId, String assetSymbol, OffsetDateTime from, OffsetDateTime to,
+                              TradeCursor after, int limit) {
+        var sql = new StringBuilder("""
+            SELECT t.trade_id, t.asset_symbol, t.side::text as side, t.quantity,
                    t.price_usd, t.executed_at, t.created_at
             FROM trades t
             WHERE t.user_id = ?
-            ORDER BY t.executed_at DESC
-            """,
-            ps -> ps.setObject(1, userId),
-            rs -> {
-                var results = new java.util.ArrayList<Trade>();
-                while (rs.next()) {
-                    results.add(mapTrade(rs));
-                }
-                return results;
-            });
-    }
+            """);
+        var args = new ArrayList<Object>();
+        args.add(userId);
+        if (assetSymbol != null) {
+            sql.append("  AND t.asset_symbol = ?\n");
+            args.add(assetSymbol);
+        }
+        if (from != null) {
+            sql.append("  AND t.executed_at >= ?\n");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append("  AND t.executed_at < ?\n");
+            args.add(to);
+        }
+        if (after != null) {
+            sql.append("  AND (t.executed_at, t.trade_id) < (?, ?)\n");
+            args.add(after.executedAt());
+            args.add(after.tradeId());
+        }
+        sql.append("ORDER BY t.executed_at DESC, t.trade_id DESC\nLIMIT ?");
+        args.add(limit + 1);
 
-
-    public List<Trade> findByUserIdAndAsset(UUID userId, String assetSymbol) {
-        return jdbc.query("""
-            SELECT t.trade_id, t.asset_symbol, t.side::text as side, t.quantity, 
-                   t.price_usd, t.executed_at, t.created_at
-            FROM trades t
-            WHERE t.user_id = ? AND t.asset_symbol = ?
-            ORDER BY t.executed_at DESC
-            """,
-            ps -> {
-                ps.setObject(1, userId);
-                ps.setString(2, assetSymbol);
-            },
-            rs -> {
-                var results = new java.util.ArrayList<Trade>();
-                while (rs.next()) {
-                    results.add(mapTrade(rs));
-                }
-                return results;
-            });
+        var rows = jdbc.query(sql.toString(), (rs, i) -> mapTrade(rs), args.toArray());
+        boolean hasNext = rows.size() > limit;
+        return new TradePage(hasNext ? rows.subList(0, limit) : rows, hasNext);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.dhbw.broker.graphql.trade;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -12,6 +13,7 @@ import java.util.Optional;
 
 
 @Repository
+@Observed(name = "broker.jdbc")
 @RequiredArgsConstructor
 public class UserAssetRepository {
 
@@ -0,0 +1,168 @@
+package com.dhbw.broker.graphql.wallet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Guards idempotent wallet GETs: each call gets a deadline, is hedged with a second attempt
+ * once it runs longer than the observed p95, and is short-circuited while the upstream keeps
+ * failing. Callers fall back to a stale value (see {@link WalletCache}) when a call is refused.
+ */
+@Component
+public class UpstreamGuard {
+
+    public static class CircuitOpenException extends RuntimeException {
+        CircuitOpenException() {
+            super("Wallet upstream circuit is open");
+        }
+    }
+
+    private final Breaker breaker;
+    private final LatencyWindow latencies = new LatencyWindow(256);
+    private final Duration minHedgeDelay;
+
+    public UpstreamGuard(
+            @Value("${wallet.upstream.hedge.min-delay-ms:50}") long minHedgeDelayMs,
+            @Value("${wallet.upstream.breaker.window:20}") int window,
+            @Value("${wallet.upstream.breaker.failure-rate:0.5}") double failureRate,
+            @Value("${wallet.upstream.breaker.open-ms:10000}") long openMs) {
+        this.minHedgeDelay = Duration.ofMillis(minHedgeDelayMs);
+        this.breaker = new Breaker(window, failureRate, openMs * 1_000_000L);
+    }
+
+    public <T> Mono<T> get(Duration deadline, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (deadline.isZero()) {
+                return Mono.error(new TimeoutException("Request deadline already exhausted"));
+            }
+            Permit permit = breaker.tryAcquire();
+            if (permit == Permit.DENIED) {
+                return Mono.error(new CircuitOpenException());
+            }
+            boolean probe = permit == Permit.PROBE;
+            long start = System.nanoTime();
+            Duration hedgeDelay = latencies.p95().orElse(deadline);
+            Mono<T> attempt = hedgeDelay.compareTo(deadline) < 0
+                    ? Mono.firstWithValue(call.get(), Mono.delay(hedgeDelay).then(Mono.defer(call)))
+                    : call.get();
+            return attempt
+                    .timeout(deadline)
+                    .doOnSuccess(v -> {
+                        latencies.record(System.nanoTime() - start);
+                        breaker.onSuccess(probe);
+                    })
+                    .doOnError(e -> breaker.onFailure(probe))
+                    .doFinally(signal -> {
+                        if (probe) breaker.probeFinished();
+                    });
+        });
+    }
+
+    private enum Permit { DENIED, NORMAL, PROBE }
+
+    /** Last {@code size} successful latencies; p95 is recomputed every 16 samples. */
+    private final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+        private volatile long p95Nanos = -1;
+
+        LatencyWindow(int size) {
+            samples = new long[size];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) count++;
+            if (count >= 16 && next % 16 == 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) Math.ceil(count * 0.95) - 1];
+            }
+        }
+
+        Optional<Duration> p95() {
+            long p = p95Nanos;
+            if (p < 0) return Optional.empty();
+            Duration d = Duration.ofNanos(p);
+            return Optional.of(d.compareTo(minHedgeDelay) < 0 ? minHedgeDelay : d);
+        }
+    }
+
+    /**
+     * Count-based breaker: opens when the failure rate over the last {@code window} calls reaches
+     * the threshold, stays open for {@code openNanos}, then lets a single probe through.
+     */
+    private static final class Breaker {
+        private final boolean[] failures;
+        private final double threshold;
+        private final long openNanos;
+        private int next;
+        private int count;
+        private int failed;
+        private long openedAt;
+        private boolean open;
+        private boolean probing;
+
+        Breaker(int window, double threshold, long openNanos) {
+            this.failures = new boolean[Math.max(1, window)];
+            this.threshold = threshold;
+            this.openNanos = openNanos;
+        }
+
+        synchronized Permit tryAcquire() {
+            if (!open) return Permit.NORMAL;
+            if (probing || System.nanoTime() - openedAt < openNanos) return Permit.DENIED;
+            probing = true;
+            return Permit.PROBE;
+        }
+
+        /** Only the probe's own outcome moves an open breaker; late results of older calls are ignored. */
+        synchronized void onSuccess(boolean probe) {
+            if (probe) {
+                open = false;
+                reset();
+            }
+            if (!open) record(false);
+        }
+
+        synchronized void onFailure(boolean probe) {
+            if (probe) {
+                openedAt = System.nanoTime();
+                return;
+            }
+            if (open) return;
+            record(true);
+            if (count == failures.length && failed >= threshold * count) {
+                open = true;
+                openedAt = System.nanoTime();
+            }
+        }
+
+        /** Runs on success, error and cancellation, so a cancelled probe cannot wedge the breaker open. */
+        synchronized void probeFinished() {
+            probing = false;
+        }
+
+        private void record(boolean failure) {
+            if (count == failures.length && failures[next]) failed--;
+            failures[next] = failure;
+            if (failure) failed++;
+            next = (next + 1) % failures.length;
+            if (count < failures.length) count++;
+        }
+
+        private void reset() {
+            Arrays.fill(failures, false);
+            next = count = failed = 0;
+        }
+    }
+}
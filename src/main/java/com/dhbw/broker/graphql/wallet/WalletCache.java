@@ -0,0 +1,108 @@
+package com.dhbw.broker.graphql.wallet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived, per-user cache for wallet upstream calls with request coalescing: concurrent
+ * requests for the same user and resource share one in-flight call, and its value is reused
+ * for {@code wallet.cache.ttl-ms}. Errors and empty results are never cached, but the last
+ * good value is kept as a fallback for when the upstream is failing.
+ */
+@Component
+public class WalletCache {
+
+    private record Key(String userKey, String resource) {}
+
+    private final class Entry {
+        final Mono<Object> value;
+        volatile long lastAccessNanos = System.nanoTime();
+        volatile Object lastGood;
+        volatile long lastGoodNanos;
+
+        Entry(Supplier<? extends Mono<?>> loader) {
+            this.value = loader.get()
+                    .<Object>map(v -> v)
+                    .doOnNext(this::remember)
+                    .cache(v -> ttl, e -> Duration.ZERO, () -> Duration.ZERO);
+        }
+
+        private void remember(Object v) {
+            lastGood = v;
+            lastGoodNanos = System.nanoTime();
+        }
+
+        Mono<Object> valueOrStale(Duration wait) {
+            Mono<Object> bounded = wait == null ? value : value.timeout(wait);
+            return bounded.onErrorResume(e -> {
+                Object stale = lastGood;
+                if (stale != null && System.nanoTime() - lastGoodNanos < staleTtl.toNanos()) {
+                    return Mono.just(stale);
+                }
+                return Mono.error(e);
+            });
+        }
+    }
+
+    private final Duration ttl;
+    private final Duration staleTtl;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public WalletCache(@Value("${wallet.cache.ttl-ms:2000}") long ttlMs,
+                       @Value("${wallet.cache.stale-ms:300000}") long staleMs) {
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.staleTtl = Duration.ofMillis(Math.max(ttlMs, staleMs));
+    }
+
+    /**
+     * Returns the cached or in-flight value for the key, loading it once if needed. When the
+     * load fails, the last good value is served instead for up to {@code wallet.cache.stale-ms}.
+     */
+    public <T> Mono<T> get(String userKey, String resource, Supplier<Mono<T>> loader) {
+        return get(userKey, resource, null, loader);
+    }
+
+    /**
+     * Like {@link #get(String, String, Supplier)}, but this caller waits at most {@code wait} for
+     * the shared load; past that it gets the stale value or a timeout, while the load itself keeps
+     * running for other callers. The loader is shared by every caller of the key, so it must not
+     * depend on any single request.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String userKey, String resource, Duration wait, Supplier<Mono<T>> loader) {
+        Entry entry = entries.computeIfAbsent(new Key(userKey, resource), k -> new Entry(loader));
+        entry.lastAccessNanos = System.nanoTime();
+        return (Mono<T>) entry.valueOrStale(wait);
+    }
+
+    /** Drops everything cached for the user, e.g. after a trade changed their balance. */
+    public void invalidate(String userKey) {
+        entries.keySet().removeIf(k -> k.userKey().equals(userKey));
+    }
+
+    public void invalidate(String userKey, String resource) {
+        entries.remove(new Key(userKey, resource));
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.cache.prune-ms:60000}")
+    public void prune() {
+        long idleBefore = System.nanoTime() - staleTtl.toNanos();
+        entries.values().removeIf(e -> e.lastAccessNanos < idleBefore);
+    }
+
+    public static String currentUserKey() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null) {
+            throw new IllegalStateException("User not authenticated");
+        }
+        return auth.getName();
+    }
+}
@@ -1,26 +1,38 @@
 package com.dhbw.broker.graphql.wallet;
 
+import com.dhbw.broker.graphql.config.RequestDeadlineInterceptor;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 @Controller
 public class WalletController {
 
+    /** Budget of the shared upstream load; each caller waits only for its own remaining deadline. */
+    private static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(5);
+
     private final WebClient webClient;
+    private final WalletCache walletCache;
+    private final UpstreamGuard upstream;
 
-    public WalletController(WebClient webClient) {
+    public WalletController(WebClient webClient, WalletCache walletCache, UpstreamGuard upstream) {
         this.webClient = webClient;
+        this.walletCache = walletCache;
+        this.upstream = upstream;
     }
 
     @QueryMapping
-    public Mono<Map<String, Object>> walletBalance() {
-        return webClient.get()
+    public Mono<Map<String, Object>> walletBalance(
+            @ContextValue(name = RequestDeadlineInterceptor.DEADLINE_KEY, required = false) Long deadline) {
+        Duration budget = RequestDeadlineInterceptor.remaining(deadline, DEFAULT_DEADLINE);
+        return walletCache.get(WalletCache.currentUserKey(), "balance", budget, () -> upstream.get(DEFAULT_DEADLINE, () -> webClient.get()
                 .uri("/api/wallet/balance")
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
@@ -28,16 +40,18 @@ public class WalletController {
                 .map(response -> Map.of(
                     "currentBalance", response.get("balance"),
                     "currency", "USD"
-                ));
+                ))));
     }
 
     @QueryMapping
-    public Mono<List<Map<String, Object>>> walletTransactions() {
-        return webClient.get()
+    public Mono<List<Map<String, Object>>> walletTransactions(
+            @ContextValue(name = RequestDeadlineInterceptor.DEADLINE_KEY, required = false) Long deadline) {
+        Duration budget = RequestDeadlineInterceptor.remaining(deadline, DEFAULT_DEADLINE);
+        return walletCache.get(WalletCache.currentUserKey(), "transactions", budget, () -> upstream.get(DEFAULT_DEADLINE, () -> webClient.get()
                 .uri("/api/wallet/transactions")
                 .retrieve()
                 .bodyToFlux(new ParameterizedTypeReference<Map<String, Object>>() {
                 })
-                .collectList();
+                .collectList()));
     }
 }
\ No newline at end of file
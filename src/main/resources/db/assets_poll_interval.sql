@@ -0,0 +1,8 @@
+-- Per-asset price polling interval read by the price scheduler; NULL means the configured default.
+-- Run once by hand with psql against the broker database:
+--   psql "$JDBC_DATABASE_URL" -f assets_poll_interval.sql
+-- Adding a nullable column without a default only touches the catalog, but it still takes a
+-- short ACCESS EXCLUSIVE lock on assets, so run it outside peak trading.
+
+ALTER TABLE assets ADD COLUMN IF NOT EXISTS poll_interval_seconds INTEGER
+    CHECK (poll_interval_seconds > 0);
@@ -0,0 +1,19 @@
+-- Indexes behind the keyset pagination of userTrades and userTradesByAsset.
+-- Run by hand with psql, outside a transaction block, against the broker database:
+--   psql "$JDBC_DATABASE_URL" -f trades_keyset_indexes.sql
+-- CONCURRENTLY keeps trades writable during the build. A failed or cancelled build leaves an
+-- INVALID index behind that IF NOT EXISTS would skip, so any invalid leftover is dropped first.
+
+SELECT format('DROP INDEX CONCURRENTLY IF EXISTS %s', i.indexrelid::regclass)
+FROM pg_index i
+JOIN pg_class c ON c.oid = i.indexrelid
+WHERE i.indrelid = 'trades'::regclass
+  AND NOT i.indisvalid
+  AND c.relname IN ('trades_user_executed_idx', 'trades_user_asset_executed_idx')
+\gexec
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trades_user_executed_idx
+    ON trades (user_id, executed_at DESC, trade_id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS trades_user_asset_executed_idx
+    ON trades (user_id, asset_symbol, executed_at DESC, trade_id DESC);
@@ -0,0 +1,85 @@
+package com.dhbw.broker.graphql.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class CachingJwtDecoderTests {
+
+    private final Map<String, Integer> decodes = new HashMap<>();
+    private Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+
+    private final JwtDecoder delegate = token -> {
+        decodes.merge(token, 1, Integer::sum);
+        if (token.startsWith("bad")) throw new BadJwtException("rejected");
+        return Jwt.withTokenValue(token).header("alg", "RS256").subject(token)
+                .issuedAt(Instant.now().minusSeconds(1)).expiresAt(expiresAt).build();
+    };
+
+    @Test
+    void verifiedTokenIsDecodedOnce() {
+        var decoder = new CachingJwtDecoder(delegate, Duration.ofMinutes(5), 10);
+
+        var first = decoder.decode("a");
+        var second = decoder.decode("a");
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodes).containsEntry("a", 1);
+    }
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsedToken() {
+        var decoder = new CachingJwtDecoder(delegate, Duration.ofMinutes(5), 2);
+        decoder.decode("a");
+        decoder.decode("b");
+        decoder.decode("a");
+
+        decoder.decode("c");
+        decoder.decode("a");
+        decoder.decode("c");
+        decoder.decode("b");
+
+        assertThat(decodes).containsEntry("a", 1).containsEntry("c", 1).containsEntry("b", 2);
+    }
+
+    @Test
+    void expiredEntryIsDecodedAgain() {
+        expiresAt = Instant.now().plusMillis(50);
+        var decoder = new CachingJwtDecoder(delegate, Duration.ofMinutes(5), 10);
+        decoder.decode("a");
+
+        expiresAt = Instant.now().plus(Duration.ofHours(1));
+        await(Duration.ofMillis(100));
+        decoder.decode("a");
+        decoder.decode("a");
+
+        assertThat(decodes).containsEntry("a", 2);
+    }
+
+    @Test
+    void rejectedTokenIsNotCached() {
+        var decoder = new CachingJwtDecoder(delegate, Duration.ofMinutes(5), 10);
+
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode("bad"));
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode("bad"));
+
+        assertThat(decodes).containsEntry("bad", 2);
+    }
+
+    private static void await(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
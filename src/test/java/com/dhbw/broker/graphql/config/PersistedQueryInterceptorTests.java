@@ -0,0 +1,79 @@
+package com.dhbw.broker.graphql.config;
+
+import graphql.ExecutionResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlResponse;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistedQueryInterceptorTests {
+
+    private static final String QUERY = "{ latestPrice(assetSymbol: \"BTC\") { priceUsd } }";
+    private static final String HASH = PersistedQueryStore.sha256Hex(QUERY);
+
+    private final PersistedQueryStore store = new PersistedQueryStore(16);
+    private final PersistedQueryInterceptor interceptor = new PersistedQueryInterceptor(store);
+    private final AtomicReference<WebGraphQlRequest> forwarded = new AtomicReference<>();
+
+    private final WebGraphQlInterceptor.Chain chain = request -> {
+        forwarded.set(request);
+        var result = ExecutionResult.newExecutionResult().data(Map.of()).build();
+        return Mono.just(new WebGraphQlResponse(new DefaultExecutionGraphQlResponse(request.toExecutionInput(), result)));
+    };
+
+    @Test
+    void hashOnlyRequestRunsTheRegisteredQuery() {
+        store.register(HASH, QUERY);
+
+        var response = interceptor.intercept(request(null, HASH), chain).block();
+
+        assertThat(response.getErrors()).isEmpty();
+        assertThat(forwarded.get().toExecutionInput().getQuery()).isEqualTo(QUERY);
+    }
+
+    @Test
+    void hashOnlyRequestForUnknownHashIsNotFound() {
+        var response = interceptor.intercept(request(null, HASH), chain).block();
+
+        assertThat(forwarded.get()).isNull();
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(e -> assertThat(e.getExtensions()).containsEntry("code", "PERSISTED_QUERY_NOT_FOUND"));
+    }
+
+    @Test
+    void queryWithHashIsRegistered() {
+        interceptor.intercept(request(QUERY, HASH), chain).block();
+
+        assertThat(forwarded.get()).isNotNull();
+        assertThat(store.find(HASH)).isNotNull();
+        assertThat(store.find(HASH).readOnly()).isTrue();
+    }
+
+    @Test
+    void queryWithWrongHashIsRejected() {
+        var response = interceptor.intercept(request(QUERY, PersistedQueryStore.sha256Hex("{ other }")), chain).block();
+
+        assertThat(forwarded.get()).isNull();
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(e -> assertThat(e.getExtensions()).containsEntry("code", "PERSISTED_QUERY_HASH_MISMATCH"));
+    }
+
+    private static WebGraphQlRequest request(String query, String hash) {
+        var body = new HashMap<String, Object>();
+        if (query != null) body.put("query", query);
+        body.put("extensions", Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        return new WebGraphQlRequest(URI.create("http://localhost/graphql"), new HttpHeaders(), null, null, Map.of(),
+                body, "1", Locale.ENGLISH);
+    }
+}
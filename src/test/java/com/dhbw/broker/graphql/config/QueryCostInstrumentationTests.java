@@ -0,0 +1,121 @@
+package com.dhbw.broker.graphql.config;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCostInstrumentationTests {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+            new SchemaParser().parse("""
+                type Query {
+                    assets: [Asset]
+                    trades(first: Int): TradeConnection
+                }
+                type Asset {
+                    symbol: String
+                    related: [Asset]
+                }
+                type TradeConnection {
+                    edges: [TradeEdge]
+                }
+                type TradeEdge {
+                    node: Trade
+                }
+                type Trade {
+                    id: ID
+                }
+                """),
+            RuntimeWiring.newRuntimeWiring().build());
+
+    private static final Map<String, Integer> PAGE_EDGES = Map.of("TradeConnection.edges", 1);
+
+    @Test
+    void depthCountsNestedFields() {
+        var limits = limits(2, 1000, Map.of(), Map.of());
+
+        assertThat(error(limits, "{ assets { symbol } }")).isNull();
+        assertThat(error(limits, "{ assets { related { symbol } } }"))
+                .isEqualTo("Query depth 3 exceeds the limit of 2");
+    }
+
+    @Test
+    void listFieldsMultiplyTheCostBelowThem() {
+        // assets 1 + related 1 * 10, scalars are free
+        assertThat(cost(Map.of(), Map.of(), "{ assets { symbol related { symbol } } }")).isEqualTo(11);
+        // assets 1 + related 1 * 2
+        assertThat(cost(Map.of(), Map.of("Query.assets", 2), "{ assets { symbol related { symbol } } }")).isEqualTo(3);
+    }
+
+    @Test
+    void configuredFieldCostsApplyAtEveryLevel() {
+        // assets 1 + symbol 1 * 10 + related 1 * 10 + related.symbol 1 * 10 * 10
+        assertThat(cost(Map.of("Asset.symbol", 1), Map.of(), "{ assets { symbol related { symbol } } }")).isEqualTo(121);
+    }
+
+    @Test
+    void paginatedFieldsMultiplyByFirst() {
+        // trades 1 + edges 1 * 5 + node 1 * 5
+        assertThat(cost(Map.of(), PAGE_EDGES, "{ trades(first: 5) { edges { node { id } } } }")).isEqualTo(11);
+        // without first the default page size of 50 applies
+        assertThat(cost(Map.of(), PAGE_EDGES, "{ trades { edges { node { id } } } }")).isEqualTo(101);
+    }
+
+    @Test
+    void paginatedFieldsUseVariableValues() {
+        var limits = limits(100, 0, Map.of(), PAGE_EDGES);
+        var input = ExecutionInput.newExecutionInput("query($n: Int) { trades(first: $n) { edges { node { id } } } }")
+                .variables(Map.of("n", 3))
+                .build();
+
+        assertThat(error(limits, input)).isEqualTo("Query cost 7 exceeds the limit of 0");
+    }
+
+    @Test
+    void introspectionIsFree() {
+        var limits = limits(2, 1, Map.of(), Map.of());
+
+        assertThat(error(limits, "{ __typename assets { __typename symbol } __schema { types { fields { name } } } }"))
+                .isNull();
+    }
+
+    @Test
+    void operationAtTheLimitIsAllowed() {
+        var limits = limits(100, 11, Map.of(), Map.of());
+
+        assertThat(error(limits, "{ assets { symbol related { symbol } } }")).isNull();
+    }
+
+    private static long cost(Map<String, Integer> fields, Map<String, Integer> listSizes, String query) {
+        String message = error(limits(100, 0, fields, listSizes), query);
+        assertThat(message).startsWith("Query cost ").endsWith(" exceeds the limit of 0");
+        return Long.parseLong(message.substring("Query cost ".length(), message.indexOf(' ', "Query cost ".length())));
+    }
+
+    private static QueryCostProperties limits(int maxDepth, int maxComplexity,
+                                              Map<String, Integer> fields, Map<String, Integer> listSizes) {
+        return new QueryCostProperties(maxDepth, maxComplexity, 10, 50, fields, listSizes);
+    }
+
+    private static String error(QueryCostProperties limits, String query) {
+        return error(limits, ExecutionInput.newExecutionInput(query).build());
+    }
+
+    private static String error(QueryCostProperties limits, ExecutionInput input) {
+        ExecutionResult result = GraphQL.newGraphQL(SCHEMA)
+                .instrumentation(new QueryCostInstrumentation(limits))
+                .build()
+                .execute(input);
+        return result.getErrors().stream().map(GraphQLError::getMessage).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,103 @@
+package com.dhbw.broker.graphql.price;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptivePollScheduleTests {
+
+    private static final Map<String, Integer> ACTIVE = Map.of("BTC", 60);
+
+    private final AdaptivePollSchedule schedule = new AdaptivePollSchedule(60, 20, 600);
+
+    @Test
+    void newSymbolIsDueImmediately() {
+        assertThat(schedule.due(ACTIVE, 0)).containsExactly("BTC");
+    }
+
+    @Test
+    void changingPriceHalvesTheIntervalDownToTheMinimum() {
+        schedule.due(ACTIVE, 0);
+        schedule.succeeded("BTC", price(100), 0);
+        assertNextDue(60_000);
+
+        schedule.succeeded("BTC", price(101), 60_000);
+        assertNextDue(90_000);
+
+        schedule.succeeded("BTC", price(102), 90_000);
+        assertNextDue(110_000);
+    }
+
+    @Test
+    void unchangedPriceDoublesTheIntervalUpToTheMaximum() {
+        schedule.due(ACTIVE, 0);
+        schedule.succeeded("BTC", price(100), 0);
+
+        long now = 60_000;
+        long[] expected = {120_000, 240_000, 480_000, 600_000, 600_000};
+        for (long interval : expected) {
+            schedule.succeeded("BTC", price(100), now);
+            assertNextDue(now + interval);
+            now += interval;
+        }
+    }
+
+    @Test
+    void failuresBackOffExponentiallyFromTheConfiguredInterval() {
+        schedule.due(ACTIVE, 0);
+
+        long now = 0;
+        long[] expected = {120_000, 240_000, 480_000, 600_000};
+        for (long interval : expected) {
+            schedule.failed("BTC", now);
+            assertNextDue(now + interval);
+            now += interval;
+        }
+    }
+
+    @Test
+    void successAfterFailuresRestartsFromTheConfiguredInterval() {
+        schedule.due(ACTIVE, 0);
+        schedule.succeeded("BTC", price(100), 0);
+        schedule.failed("BTC", 60_000);
+        schedule.failed("BTC", 180_000);
+
+        schedule.succeeded("BTC", price(100), 420_000);
+
+        assertNextDue(540_000);
+    }
+
+    @Test
+    void configuredIntervalIsClampedAndChangesApplyImmediately() {
+        schedule.due(Map.of("BTC", 5), 0);
+        schedule.succeeded("BTC", price(100), 0);
+        assertThat(schedule.due(Map.of("BTC", 5), 19_999)).isEmpty();
+        assertThat(schedule.due(Map.of("BTC", 5), 20_000)).containsExactly("BTC");
+
+        schedule.succeeded("BTC", price(100), 20_000);
+        assertThat(schedule.due(Map.of("BTC", 3600), 30_000)).isEmpty();
+        assertThat(schedule.due(Map.of("BTC", 3600), 60_000)).containsExactly("BTC");
+    }
+
+    @Test
+    void inactiveSymbolsAreForgotten() {
+        schedule.due(ACTIVE, 0);
+        schedule.succeeded("BTC", price(100), 0);
+
+        assertThat(schedule.due(Map.of(), 1_000)).isEmpty();
+
+        assertThat(schedule.due(ACTIVE, 2_000)).containsExactly("BTC");
+    }
+
+    private void assertNextDue(long dueMillis) {
+        assertThat(schedule.due(ACTIVE, dueMillis - 1)).isEmpty();
+        assertThat(schedule.due(ACTIVE, dueMillis)).containsExactly("BTC");
+    }
+
+    private static BigDecimal price(long value) {
+        return BigDecimal.valueOf(value);
+    }
+}
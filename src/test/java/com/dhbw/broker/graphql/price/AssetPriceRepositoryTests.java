@@ -0,0 +1,40 @@
+package com.dhbw.broker.graphql.price;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AssetPriceRepositoryTests {
+
+    @Test
+    void failedBatchMarksEveryTickFailed() {
+        var jdbc = mock(JdbcTemplate.class);
+        // the driver reports the first row as written, but the whole batch was rolled back
+        when(jdbc.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+            .thenThrow(new DataIntegrityViolationException("batch failed", new BatchUpdateException(new int[]{1})));
+        var repo = new AssetPriceRepository(jdbc);
+
+        int[] counts = repo.upsertTicks(List.of(tick("BTC"), tick("ETH"), tick("XAU")));
+
+        assertThat(counts).containsExactly(Statement.EXECUTE_FAILED, Statement.EXECUTE_FAILED, Statement.EXECUTE_FAILED);
+    }
+
+    private static AssetPriceRepository.PriceTick tick(String symbol) {
+        var ts = Instant.parse("2026-10-18T12:00:00Z");
+        return new AssetPriceRepository.PriceTick(
+            symbol, AssetPriceRepository.slotOf(ts), new BigDecimal("1.5"), ts, ts, false);
+    }
+}
@@ -0,0 +1,76 @@
+package com.dhbw.broker.graphql.price;
+
+import com.dhbw.broker.graphql.trade.AssetRegistry;
+import com.dhbw.broker.graphql.trade.AssetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CarryForwardFillerTests {
+
+    private final AssetPriceRepository repo = mock(AssetPriceRepository.class);
+    private final AssetRegistry assets = mock(AssetRegistry.class);
+    private final List<AssetPriceRepository.PriceTick> persisted = new ArrayList<>();
+    private PriceHistoryStore history;
+    private CarryForwardFiller filler;
+
+    @BeforeEach
+    void setUp() {
+        var ts = Instant.now().minus(Duration.ofMinutes(5));
+        when(repo.find24hHistoryAllSymbols()).thenReturn(List.of(new AssetPriceRepository.PriceTick(
+            "BTC", AssetPriceRepository.slotOf(ts), new BigDecimal("100"), ts, ts, false)));
+        when(assets.all()).thenReturn(List.of(
+            new AssetRepository.Asset("BTC", "Bitcoin", true, new BigDecimal("0.0001"), null)));
+        history = new PriceHistoryStore(repo);
+        history.reload();
+        filler = new CarryForwardFiller(history, repo, assets, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void persistedCarriesAreRecorded() {
+        persistReturning(1);
+
+        filler.fillMissedMinutes();
+
+        assertThat(persisted).isNotEmpty();
+        assertThat(carries()).containsExactlyElementsOf(persisted);
+    }
+
+    @Test
+    void failedPersistLeavesTheRingUnchanged() {
+        persistReturning(Statement.EXECUTE_FAILED);
+
+        filler.fillMissedMinutes();
+
+        assertThat(persisted).isNotEmpty();
+        assertThat(carries()).isEmpty();
+        assertThat(history.fillGaps(List.of("BTC"), System.currentTimeMillis())).isNotEmpty();
+    }
+
+    private void persistReturning(int count) {
+        when(repo.upsertTicks(anyList())).thenAnswer(invocation -> {
+            List<AssetPriceRepository.PriceTick> ticks = invocation.getArgument(0);
+            persisted.addAll(ticks);
+            int[] counts = new int[ticks.size()];
+            Arrays.fill(counts, count);
+            return counts;
+        });
+    }
+
+    private List<AssetPriceRepository.PriceTick> carries() {
+        return history.history("BTC").stream().filter(AssetPriceRepository.PriceTick::isCarry).toList();
+    }
+}
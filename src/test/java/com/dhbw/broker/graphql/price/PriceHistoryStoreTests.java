@@ -0,0 +1,131 @@
+package com.dhbw.broker.graphql.price;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriceHistoryStoreTests {
+
+    private static final IntToDoubleFunction INDEX = i -> i;
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:30Z");
+
+    @Test
+    void lttbKeepsEveryPointWhenTheSeriesFits() {
+        assertThat(PriceHistoryStore.lttb(5, 5, INDEX, INDEX)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(PriceHistoryStore.lttb(3, 10, INDEX, INDEX)).containsExactly(0, 1, 2);
+        assertThat(PriceHistoryStore.lttb(0, 10, INDEX, INDEX)).isEmpty();
+    }
+
+    @Test
+    void lttbWithTwoPointsKeepsFirstAndLast() {
+        assertThat(PriceHistoryStore.lttb(1440, 2, INDEX, INDEX)).containsExactly(0, 1439);
+    }
+
+    @Test
+    void lttbRejectsLimitsBelowTwo() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PriceHistoryStore.lttb(10, 1, INDEX, INDEX));
+        assertThatIllegalArgumentException().isThrownBy(() -> PriceHistoryStore.lttb(10, 0, INDEX, INDEX));
+    }
+
+    @Test
+    void lttbPicksOnePointFromEachBucket() {
+        int n = 1440;
+        for (int maxPoints : new int[]{3, 7, 100, 719, 1439}) {
+            int[] keep = PriceHistoryStore.lttb(n, maxPoints, INDEX, i -> Math.sin(i / 10.0));
+
+            assertThat(keep).hasSize(maxPoints);
+            assertThat(keep[0]).isZero();
+            assertThat(keep[maxPoints - 1]).isEqualTo(n - 1);
+            double every = (double) (n - 2) / (maxPoints - 2);
+            for (int b = 0; b < maxPoints - 2; b++) {
+                assertThat(keep[b + 1])
+                    .isGreaterThanOrEqualTo((int) (b * every) + 1)
+                    .isLessThan((int) ((b + 1) * every) + 1);
+            }
+        }
+    }
+
+    @Test
+    void lttbKeepsASpike() {
+        int[] keep = PriceHistoryStore.lttb(100, 10, INDEX, i -> i == 42 ? 1000 : 1);
+
+        assertThat(keep).contains(42);
+    }
+
+    @Test
+    void fillGapsCarriesThePreviousPriceIntoMissedMinutes() {
+        var store = loaded(tick("BTC", "2026-10-18T11:57:10Z", 100), tick("BTC", "2026-10-18T11:59:05Z", 101));
+
+        var carries = store.fillGaps(List.of("BTC"), NOW.toEpochMilli());
+
+        assertThat(carries).singleElement().satisfies(carry -> {
+            assertThat(carry.isCarry()).isTrue();
+            assertThat(carry.sourceTsUtc()).isEqualTo(Instant.parse("2026-10-18T11:58:00Z"));
+            assertThat(carry.slot()).isEqualTo(AssetPriceRepository.slotOf(carry.sourceTsUtc()));
+            assertThat(carry.priceUsd()).isEqualByComparingTo("100");
+        });
+        // computing carries leaves the ring alone until they are recorded
+        assertThat(store.fillGaps(List.of("BTC"), NOW.toEpochMilli())).isEqualTo(carries);
+
+        carries.forEach(store::record);
+        assertThat(store.fillGaps(List.of("BTC"), NOW.toEpochMilli())).isEmpty();
+    }
+
+    @Test
+    void fillGapsSeedsFromATickOlderThanTheWindow() {
+        var store = loaded(tick("BTC", "2026-10-17T11:00:00Z", 50), tick("BTC", "2026-10-18T11:59:05Z", 60));
+
+        var carries = store.fillGaps(List.of("BTC"), NOW.toEpochMilli());
+
+        // every minute from 2026-10-17T12:01 up to 2026-10-18T11:58
+        assertThat(carries).hasSize(1438);
+        assertThat(carries).allSatisfy(carry -> assertThat(carry.priceUsd()).isEqualByComparingTo("50"));
+        assertThat(carries.get(0).sourceTsUtc()).isEqualTo(Instant.parse("2026-10-17T12:01:00Z"));
+        assertThat(carries.get(carries.size() - 1).sourceTsUtc()).isEqualTo(Instant.parse("2026-10-18T11:58:00Z"));
+    }
+
+    @Test
+    void fillGapsLeavesMinutesBeforeTheFirstPriceAndTheCurrentMinuteEmpty() {
+        var store = loaded(tick("BTC", "2026-10-18T11:58:40Z", 100));
+
+        var carries = store.fillGaps(List.of("BTC"), NOW.toEpochMilli());
+        assertThat(carries).singleElement()
+            .satisfies(carry -> assertThat(carry.sourceTsUtc()).isEqualTo(Instant.parse("2026-10-18T11:59:00Z")));
+        carries.forEach(store::record);
+        assertThat(store.fillGaps(List.of("BTC"), NOW.plus(Duration.ofMinutes(1)).toEpochMilli())).singleElement()
+            .satisfies(carry -> assertThat(carry.sourceTsUtc()).isEqualTo(Instant.parse("2026-10-18T12:00:00Z")));
+    }
+
+    @Test
+    void fillGapsSkipsUnknownSymbolsAndAnUnloadedStore() {
+        var store = loaded(tick("BTC", "2026-10-18T11:50:00Z", 100));
+        assertThat(store.fillGaps(List.of("ETH"), NOW.toEpochMilli())).isEmpty();
+
+        var unloaded = new PriceHistoryStore(mock(AssetPriceRepository.class));
+        unloaded.record(tick("BTC", "2026-10-18T11:50:00Z", 100));
+        assertThat(unloaded.fillGaps(List.of("BTC"), NOW.toEpochMilli())).isEmpty();
+    }
+
+    private static PriceHistoryStore loaded(AssetPriceRepository.PriceTick... ticks) {
+        var repo = mock(AssetPriceRepository.class);
+        when(repo.find24hHistoryAllSymbols()).thenReturn(List.of(ticks));
+        var store = new PriceHistoryStore(repo);
+        store.reload();
+        return store;
+    }
+
+    private static AssetPriceRepository.PriceTick tick(String symbol, String sourceTs, long price) {
+        var ts = Instant.parse(sourceTs);
+        return new AssetPriceRepository.PriceTick(
+            symbol, AssetPriceRepository.slotOf(ts), BigDecimal.valueOf(price), ts, ts, false);
+    }
+}
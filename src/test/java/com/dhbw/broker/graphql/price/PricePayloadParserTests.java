@@ -0,0 +1,98 @@
+package com.dhbw.broker.graphql.price;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricePayloadParserTests {
+
+    private final PricePayloadParser parser = new PricePayloadParser(new ObjectMapper());
+
+    @Test
+    void readsTopLevelPrice() {
+        assertThat(parser.parse("""
+            {"symbol": "XAU", "other": 3, "price": 2378.40}
+            """, "XAU")).isEqualByComparingTo("2378.40");
+        assertThat(parser.parse("""
+            {"price": " 2378.41 "}
+            """, "XAU")).isEqualByComparingTo("2378.41");
+    }
+
+    @Test
+    void readsDataPrice() {
+        assertThat(parser.parse("""
+            {"status": "ok", "data": {"volume": 10, "price": "31.25"}}
+            """, "XAG")).isEqualByComparingTo("31.25");
+    }
+
+    @Test
+    void readsSymbolAndRatesEntries() {
+        assertThat(parser.parse("""
+            {"XAU": 2378.4}
+            """, "XAU")).isEqualByComparingTo("2378.4");
+        assertThat(parser.parse("""
+            {"base": "USD", "rates": {"EUR": 0.92, "XAU": 2378.5}}
+            """, "XAU")).isEqualByComparingTo("2378.5");
+    }
+
+    @Test
+    void prefersTheHigherRankedPathWhereverItAppears() {
+        assertThat(parser.parse("""
+            {"rates": {"XAU": 1}, "XAU": 2, "data": {"price": 3}, "price": 4}
+            """, "XAU")).isEqualByComparingTo("4");
+    }
+
+    @Test
+    void fallsBackToTheFirstNumberButNotToText() {
+        assertThat(parser.parse("""
+            {"note": "7", "meta": {"count": "n/a"}, "values": [{"close": 42.1}, {"close": 43}]}
+            """, "XPT")).isEqualByComparingTo("42.1");
+    }
+
+    @Test
+    void returnsNullWithoutAPrice() {
+        assertThat(parser.parse("{}", "XAU")).isNull();
+        assertThat(parser.parse("""
+            {"price": "unavailable"}
+            """, "XAU")).isNull();
+        assertThat(parser.parse("not json", "XAU")).isNull();
+    }
+
+    @Test
+    void followsTheRememberedPath() {
+        parser.parse("""
+            {"data": {"price": 1}}
+            """, "XAU");
+
+        assertThat(parser.parse("""
+            {"price": 9, "data": {"price": 2}}
+            """, "XAU")).isEqualByComparingTo("2");
+    }
+
+    @Test
+    void rediscoversWhenTheRememberedPathGoesStale() {
+        parser.parse("""
+            {"price": 1}
+            """, "XAU");
+
+        assertThat(parser.parse("""
+            {"data": {"price": 2}}
+            """, "XAU")).isEqualByComparingTo("2");
+        // the new shape is remembered
+        assertThat(parser.parse("""
+            {"price": 9, "data": {"price": 3}}
+            """, "XAU")).isEqualByComparingTo("3");
+    }
+
+    @Test
+    void rememberedFallbackPathDoesNotAcceptText() {
+        parser.parse("""
+            {"values": [3]}
+            """, "XPT");
+
+        assertThat(parser.parse("""
+            {"values": ["7"], "close": 5}
+            """, "XPT")).isEqualByComparingTo("5");
+    }
+}
@@ -0,0 +1,84 @@
+package com.dhbw.broker.graphql.trade;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class HeldTradeRepositoryTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final OffsetDateTime START = OffsetDateTime.parse("2026-10-18T12:00:00Z");
+
+    private JdbcTemplate jdbc;
+    private TradeRepository trades;
+    private HeldTradeRepository held;
+    private int executed;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = TradeDatabase.open(postgres);
+        trades = new TradeRepository(jdbc, TradeDatabase.tx(jdbc));
+        held = new HeldTradeRepository(jdbc);
+        executed = 0;
+    }
+
+    @Test
+    void oversellThenBuyIsNotDrift() {
+        trade("BUY", 1);
+        trade("SELL", 3);
+        trade("BUY", 1);
+
+        assertThat(held.findByUserId(USER)).singleElement()
+                .satisfies(h -> assertThat(h.quantity()).isEqualByComparingTo("1"));
+        assertThat(held.reconcileUser(USER, false)).isEmpty();
+    }
+
+    @Test
+    void repairRestoresTheFlooredQuantity() {
+        trade("BUY", 1);
+        trade("SELL", 3);
+        trade("BUY", 2);
+        trade("SELL", 1);
+        jdbc.update("UPDATE held_trades SET quantity = 7 WHERE user_id = ?", USER);
+
+        assertThat(held.reconcileUser(USER, true)).singleElement().satisfies(d -> {
+            assertThat(d.expectedQuantity()).isEqualByComparingTo("1");
+            assertThat(d.actualQuantity()).isEqualByComparingTo("7");
+        });
+        assertThat(held.findByUserId(USER)).singleElement()
+                .satisfies(h -> assertThat(h.quantity()).isEqualByComparingTo("1"));
+        assertThat(held.reconcileUser(USER, false)).isEmpty();
+    }
+
+    @Test
+    void holdingSoldToZeroIsExpectedToBeAbsent() {
+        trade("BUY", 2);
+        trade("SELL", 2);
+        jdbc.update("""
+            INSERT INTO held_trades (user_id, asset_symbol, quantity) VALUES (?, 'BTC', 2)
+            """, USER);
+
+        assertThat(held.reconcileUser(USER, false)).singleElement().satisfies(d -> {
+            assertThat(d.expectedQuantity()).isNull();
+            assertThat(d.actualQuantity()).isEqualByComparingTo("2");
+        });
+    }
+
+    private void trade(String side, long quantity) {
+        trades.executeTrade(USER, "BTC", side, BigDecimal.valueOf(quantity), new BigDecimal("100"),
+                START.plusMinutes(executed++));
+    }
+}
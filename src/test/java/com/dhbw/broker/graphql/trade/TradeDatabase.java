@@ -0,0 +1,32 @@
+package com.dhbw.broker.graphql.trade;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/** Empty trade tables in a test container, created the way the application creates them. */
+final class TradeDatabase {
+
+    private TradeDatabase() {
+    }
+
+    static JdbcTemplate open(PostgreSQLContainer<?> postgres) {
+        var dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        var jdbc = new JdbcTemplate(dataSource);
+        if (!Boolean.TRUE.equals(jdbc.queryForObject("SELECT to_regclass('trades') IS NOT NULL", Boolean.class))) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/trades-schema.sql")).execute(dataSource);
+        }
+        new HeldTradeRepository(jdbc).ensureTable();
+        new PositionRepository(jdbc).ensureTable();
+        jdbc.execute("TRUNCATE trades, held_trades, user_positions");
+        return jdbc;
+    }
+
+    static TransactionTemplate tx(JdbcTemplate jdbc) {
+        return new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.dhbw.broker.graphql.trade;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class TradeRepositoryTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final OffsetDateTime EXECUTED_AT = OffsetDateTime.parse("2026-10-18T12:00:00Z");
+
+    private JdbcTemplate jdbc;
+    private TradeRepository trades;
+    private HeldTradeRepository held;
+    private PositionRepository positions;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = TradeDatabase.open(postgres);
+        trades = new TradeRepository(jdbc, TradeDatabase.tx(jdbc));
+        held = new HeldTradeRepository(jdbc);
+        positions = new PositionRepository(jdbc);
+    }
+
+    @Test
+    void sellingTheWholeHoldingRemovesIt() {
+        trade("BUY", 10);
+        trade("SELL", 10);
+
+        assertThat(held.findByUserId(USER)).isEmpty();
+        assertThat(positions.findByUserId(USER)).singleElement()
+                .satisfies(p -> assertThat(p.quantity()).isEqualByComparingTo("0"));
+    }
+
+    @Test
+    void sellingMoreThanHeldLeavesNoNegativeHolding() {
+        trade("BUY", 1);
+        trade("SELL", 3);
+        trade("SELL", 1);
+
+        assertThat(held.findByUserId(USER)).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM held_trades", Integer.class)).isZero();
+        assertThat(positions.findByUserId(USER)).singleElement()
+                .satisfies(p -> assertThat(p.quantity()).isEqualByComparingTo("0"));
+    }
+
+    @Test
+    void concurrentSellsToZeroRemoveTheHolding() throws Exception {
+        trade("BUY", 10);
+
+        var pool = Executors.newFixedThreadPool(2);
+        try (Connection lock = jdbc.getDataSource().getConnection()) {
+            lock.setAutoCommit(false);
+            try (var ps = lock.prepareStatement("SELECT 1 FROM held_trades WHERE user_id = ? FOR UPDATE")) {
+                ps.setObject(1, USER);
+                ps.executeQuery().close();
+            }
+            // both sells take their snapshot while the row still holds 10, then queue on its lock
+            var first = pool.submit(() -> trade("SELL", 5));
+            var second = pool.submit(() -> trade("SELL", 5));
+            awaitLockWaiters(2);
+            lock.commit();
+
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(held.findByUserId(USER)).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM held_trades", Integer.class)).isZero();
+        assertThat(positions.findByUserId(USER)).singleElement()
+                .satisfies(p -> assertThat(p.quantity()).isEqualByComparingTo("0"));
+    }
+
+    private TradeRepository.TradeResult trade(String side, long quantity) {
+        return trades.executeTrade(USER, "BTC", side, BigDecimal.valueOf(quantity), new BigDecimal("100"), EXECUTED_AT);
+    }
+
+    private void awaitLockWaiters(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer waiting = jdbc.queryForObject("""
+                SELECT count(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND wait_event_type = 'Lock'
+                """, Integer.class);
+            if (waiting != null && waiting >= expected) return;
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Trades did not queue on the held_trades row lock");
+    }
+}
@@ -0,0 +1,12 @@
+CREATE TYPE trade_side AS ENUM ('BUY', 'SELL');
+
+CREATE TABLE trades (
+    trade_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    asset_symbol TEXT NOT NULL,
+    side trade_side NOT NULL,
+    quantity NUMERIC NOT NULL,
+    price_usd NUMERIC NOT NULL,
+    executed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);